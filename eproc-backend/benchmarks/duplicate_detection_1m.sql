@@ -0,0 +1,66 @@
+-- Duplicate detection lookup at 1M material rows.
+--
+-- Run against a scratch database migrated to the latest version:
+--   psql -d eproc_bench -f benchmarks/duplicate_detection_1m.sql
+--
+-- Generates 50 sites x 2,000 requests x 10 materials (1M materials) inside a
+-- transaction, compares the old LOWER(name) predicate with the
+-- (site_id, normalized_name) lookup, then rolls everything back.
+
+\timing on
+BEGIN;
+
+INSERT INTO users (email, password_hash, name, role, active, created_at)
+VALUES ('bench-owner@eproc.local', 'x', 'Bench Owner', 'OWNER', true, NOW());
+
+INSERT INTO projects (name, owner_id, status, is_active, created_at)
+SELECT 'Bench Project', id, 'ACTIVE', true, NOW() FROM users WHERE email = 'bench-owner@eproc.local';
+
+INSERT INTO sites (project_id, name, location, is_active, created_at)
+SELECT p.id, 'Bench Site ' || s, 'Bench', true, NOW()
+FROM projects p, generate_series(1, 50) s
+WHERE p.name = 'Bench Project';
+
+INSERT INTO requests (id, project_id, site_id, created_by_id, title, planned_start_date, planned_end_date,
+                      priority, status, boq_reference_code, is_duplicate_flagged, created_at, updated_at)
+SELECT nextval('requests_id_seq'), s.project_id, s.id, p.owner_id, 'Bench request ' || n,
+       NOW() + (n % 180) * INTERVAL '1 day', NOW() + (n % 180 + 14) * INTERVAL '1 day',
+       'NORMAL', 'PENDING', 'BENCH-' || s.id || '-' || n, false, NOW(), NOW()
+FROM sites s
+JOIN projects p ON p.id = s.project_id
+CROSS JOIN generate_series(1, 2000) n
+WHERE p.name = 'Bench Project';
+
+INSERT INTO materials (id, request_id, site_id, name, normalized_name, quantity, measurement_unit,
+                       rate_estimate, rate_estimate_type, resource_type, status, created_at, updated_at)
+SELECT nextval('materials_id_seq'), r.id, r.site_id,
+       'Material ' || ((r.id + i) % 5000) || ' 50kg', 'material ' || ((r.id + i) % 5000) || ' 50',
+       10, 'bag', 1000, 'ENGINEER_ESTIMATE', 'MATERIAL', 'PENDING', NOW(), NOW()
+FROM requests r
+CROSS JOIN generate_series(1, 10) i
+WHERE r.boq_reference_code LIKE 'BENCH-%';
+
+ANALYZE requests;
+ANALYZE materials;
+
+-- Before: case-insensitive name predicate (no supporting index)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT r.id FROM requests r
+JOIN materials m ON m.request_id = r.id
+WHERE r.site_id = (SELECT MIN(id) FROM sites WHERE name = 'Bench Site 1')
+  AND LOWER(m.name) IN ('material 42 50kg', 'material 4242 50kg')
+  AND r.status IN ('PENDING', 'SUBMITTED', 'APPROVED', 'PARTIALLY_APPROVED')
+  AND ((r.planned_start_date <= NOW() + INTERVAL '30 days' AND r.planned_end_date >= NOW())
+       OR r.planned_start_date IS NULL OR r.planned_end_date IS NULL);
+
+-- After: index-only scan of (site_id, normalized_name)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id FROM requests r
+WHERE r.id IN (SELECT m.request_id FROM materials m
+               WHERE m.site_id = (SELECT MIN(id) FROM sites WHERE name = 'Bench Site 1')
+                 AND m.normalized_name IN ('material 42 50', 'material 4242 50'))
+  AND r.status IN ('PENDING', 'SUBMITTED', 'APPROVED', 'PARTIALLY_APPROVED')
+  AND ((r.planned_start_date <= NOW() + INTERVAL '30 days' AND r.planned_end_date >= NOW())
+       OR r.planned_start_date IS NULL OR r.planned_end_date IS NULL);
+
+ROLLBACK;
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Platform vs virtual threads on the request-listing and intake endpoints.
+#
+# Run from eproc-backend against a scratch database migrated to the latest
+# version, with an engineer account assigned to the given project and site:
+#   ./mvnw -q package -DskipTests
+#   BENCH_EMAIL=eng@bench.local BENCH_PASSWORD=secret PROJECT_ID=1 SITE_ID=1 \
+#     benchmarks/web_tier_load.sh
+#
+# Starts the jar once per mode, drives each endpoint with `hey`
+# (https://github.com/rakyll/hey) and prints requests/sec and p99. Pinned
+# virtual threads are reported on stderr of the app (app-<mode>.log).
+# Intake requests are created for real; drop the scratch database afterwards.
+
+set -euo pipefail
+
+: "${BENCH_EMAIL:?engineer email}"
+: "${BENCH_PASSWORD:?engineer password}"
+: "${PROJECT_ID:?project id}"
+: "${SITE_ID:?site id}"
+PORT="${PORT:-8080}"
+CONCURRENCY="${CONCURRENCY:-200}"
+REQUESTS="${REQUESTS:-20000}"
+INTAKE_REQUESTS="${INTAKE_REQUESTS:-2000}"
+BASE="http://localhost:${PORT}"
+JAR="$(ls target/eproc-backend-*.jar | grep -v plain | head -n 1)"
+
+intake_body() {
+  cat <<EOF
+[{"projectId": ${PROJECT_ID}, "siteId": ${SITE_ID}, "title": "Load test request",
+  "plannedStartDate": "2030-01-01T08:00:00", "plannedEndDate": "2030-01-15T17:00:00",
+  "duplicateExplanation": "load test",
+  "items": [{"name": "Cement 50kg", "quantity": 10, "measurementUnit": "bags", "rateEstimate": 18000}]}]
+EOF
+}
+
+summarise() {
+  # hey prints "Requests/sec: N" and "99% in S secs"
+  awk -v label="$1" '
+    /Requests\/sec/ { rps = $2 }
+    /99% in/ { p99 = $3 * 1000 }
+    END { printf "%-28s %10.1f req/s   p99 %8.1f ms\n", label, rps, p99 }'
+}
+
+run_mode() {
+  local virtual="$1" mode
+  mode=$([ "$virtual" = true ] && echo virtual || echo platform)
+
+  JAVA_TOOL_OPTIONS="-Djdk.tracePinnedThreads=short" \
+    java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+    > "app-${mode}.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+
+  until curl -sf "${BASE}/api/health" > /dev/null; do sleep 1; done
+
+  local token
+  token=$(curl -s -D - -o /dev/null -H 'Content-Type: application/json' \
+    -d "{\"email\": \"${BENCH_EMAIL}\", \"password\": \"${BENCH_PASSWORD}\"}" \
+    "${BASE}/api/auth/login" | sed -n 's/^[Ss]et-[Cc]ookie: eproc-jwt=\([^;]*\).*/\1/p')
+
+  # Warm up JIT and connection pool
+  hey -n 2000 -c 50 -H "Cookie: eproc-jwt=${token}" "${BASE}/api/requests/my-requests/page?limit=20" > /dev/null
+
+  hey -n "$REQUESTS" -c "$CONCURRENCY" -H "Cookie: eproc-jwt=${token}" \
+    "${BASE}/api/requests/my-requests/page?limit=20" | summarise "${mode} listing"
+
+  hey -n "$INTAKE_REQUESTS" -c "$CONCURRENCY" -m POST -T application/json -d "$(intake_body)" \
+    -H "Cookie: eproc-jwt=${token}" "${BASE}/api/requests" | summarise "${mode} intake"
+}
+
+run_mode false
+run_mode true
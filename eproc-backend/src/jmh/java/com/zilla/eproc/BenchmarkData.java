@@ -0,0 +1,154 @@
+package com.zilla.eproc;
+
+import com.zilla.eproc.dto.CreateMaterialItemDTO;
+import com.zilla.eproc.dto.CreateRequestDTO;
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.util.MaterialNameNormalizer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic, deterministic data for benchmarks.
+ */
+public final class BenchmarkData {
+
+    private static final String[] MATERIALS = {
+            "Cement 50kg", "River sand", "Aggregate 20mm", "Steel bars Y12", "Binding wire",
+            "Timber 2x4", "Roofing sheets", "Nails 4 inch", "Ready mix 20m3", "PVC pipe 4 inch"
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static User user(long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@bench.local");
+        user.setName("User " + id);
+        user.setRole(role);
+        return user;
+    }
+
+    public static Project project(long id, User owner) {
+        Project project = new Project();
+        project.setId(id);
+        project.setName("Project " + id);
+        project.setOwner(owner);
+        project.setStatus(ProjectStatus.ACTIVE);
+        return project;
+    }
+
+    public static Site site(long id, Project project) {
+        Site site = new Site();
+        site.setId(id);
+        site.setName("Site " + id);
+        site.setProject(project);
+        return site;
+    }
+
+    /**
+     * Request with {@code materialCount} materials drawn from a fixed catalogue.
+     */
+    public static Request request(long id, Site site, User creator, int materialCount, Random random) {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 8, 0).plusDays(random.nextInt(180));
+        Request request = Request.builder()
+                .id(id)
+                .project(site.getProject())
+                .site(site)
+                .createdBy(creator)
+                .title("Request " + id)
+                .plannedStartDate(start)
+                .plannedEndDate(start.plusDays(7 + random.nextInt(21)))
+                .status(RequestStatus.PENDING)
+                .boqReferenceCode("BOQ-BENCH-" + id)
+                .createdAt(start.minusDays(3))
+                .updatedAt(start.minusDays(3))
+                .build();
+        List<Material> materials = new ArrayList<>();
+        for (int i = 0; i < materialCount; i++) {
+            String name = MATERIALS[random.nextInt(MATERIALS.length)];
+            Material material = Material.builder()
+                    .id(id * 1000 + i)
+                    .request(request)
+                    .name(name)
+                    .normalizedName(MaterialNameNormalizer.normalize(name))
+                    .siteId(site.getId())
+                    .quantity(BigDecimal.valueOf(1 + random.nextInt(500)))
+                    .measurementUnit("unit")
+                    .rateEstimate(BigDecimal.valueOf(1000 + random.nextInt(50000)))
+                    .build();
+            materials.add(material);
+        }
+        request.setMaterials(materials);
+        return request;
+    }
+
+    public static PurchaseOrder purchaseOrder(long id, Request request, int itemCount, Random random) {
+        PurchaseOrder po = PurchaseOrder.builder()
+                .id(id)
+                .poNumber("PO-BENCH-" + id)
+                .project(request.getProject())
+                .site(request.getSite())
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            BigDecimal qty = BigDecimal.valueOf(1 + random.nextInt(100));
+            BigDecimal price = BigDecimal.valueOf(1000 + random.nextInt(50000));
+            po.getItems().add(PurchaseOrderItem.builder()
+                    .purchaseOrder(po)
+                    .request(request)
+                    .materialDisplayName(MATERIALS[i % MATERIALS.length])
+                    .orderedQty(qty)
+                    .unit("unit")
+                    .unitPrice(price)
+                    .totalPrice(qty.multiply(price))
+                    .build());
+        }
+        return po;
+    }
+
+    /**
+     * Intake payload with random material names, so the database does not
+     * fill up with duplicates of one catalogue as iterations accumulate.
+     * Every request still carries a duplicate explanation in case names collide.
+     */
+    public static List<CreateRequestDTO> createRequestDTOs(Long projectId, Long siteId, int requestCount,
+            int materialCount, Random random) {
+        List<CreateRequestDTO> dtos = new ArrayList<>();
+        for (int r = 0; r < requestCount; r++) {
+            LocalDateTime start = LocalDateTime.of(2026, 1, 1, 8, 0).plusDays(random.nextInt(180));
+            List<CreateMaterialItemDTO> items = new ArrayList<>();
+            for (int i = 0; i < materialCount; i++) {
+                items.add(CreateMaterialItemDTO.builder()
+                        .name(word(random, 8) + " " + word(random, 5))
+                        .quantity(BigDecimal.valueOf(1 + random.nextInt(500)))
+                        .measurementUnit("unit")
+                        .rateEstimate(BigDecimal.valueOf(1000 + random.nextInt(50000)))
+                        .rateEstimateType("ENGINEER_ESTIMATE")
+                        .resourceType("MATERIAL")
+                        .build());
+            }
+            dtos.add(CreateRequestDTO.builder()
+                    .projectId(projectId)
+                    .siteId(siteId)
+                    .title("Bench intake " + r)
+                    .plannedStartDate(start)
+                    .plannedEndDate(start.plusDays(14))
+                    .items(items)
+                    .duplicateExplanation("Benchmark load")
+                    .build());
+        }
+        return dtos;
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.zilla.eproc;
+
+import com.zilla.eproc.dto.CreateRequestDTO;
+import com.zilla.eproc.dto.RequestResponseDTO;
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.repository.ProjectAssignmentRepository;
+import com.zilla.eproc.repository.ProjectRepository;
+import com.zilla.eproc.repository.SiteRepository;
+import com.zilla.eproc.repository.UserRepository;
+import com.zilla.eproc.service.RequestService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full request intake through RequestService.createRequests on an embedded
+ * database: validation, duplicate detection, reference codes, batched
+ * inserts and counter updates.
+ *
+ * "h2-postgresql" runs H2 in PostgreSQL compatibility mode as a local,
+ * container-free stand-in for the production database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntakeBenchmark {
+
+    @Param({ "h2", "h2-postgresql" })
+    String database;
+
+    @Param({ "1", "20" })
+    int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private RequestService requestService;
+    private String engineerEmail;
+    private Long projectId;
+    private Long siteId;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = "h2-postgresql".equals(database)
+                ? "jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+                : "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+        context = new SpringApplicationBuilder(EprocApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.datasource.url=" + url)
+                .run();
+        requestService = context.getBean(RequestService.class);
+
+        UserRepository users = context.getBean(UserRepository.class);
+        User owner = users.save(User.builder()
+                .email("owner@bench.local").name("Bench Owner").passwordHash("x").role(Role.OWNER).build());
+        User engineer = users.save(User.builder()
+                .email("engineer@bench.local").name("Bench Engineer").passwordHash("x").role(Role.ENGINEER).build());
+        engineerEmail = engineer.getEmail();
+
+        Project project = BenchmarkData.project(0, owner);
+        project.setId(null);
+        project = context.getBean(ProjectRepository.class).save(project);
+        projectId = project.getId();
+
+        context.getBean(ProjectAssignmentRepository.class).save(ProjectAssignment.builder()
+                .project(project)
+                .user(engineer)
+                .role(ProjectRole.PROJECT_SITE_ENGINEER)
+                .startDate(LocalDate.now())
+                .isActive(true)
+                .build());
+
+        Site site = BenchmarkData.site(0, project);
+        site.setId(null);
+        siteId = context.getBean(SiteRepository.class).save(site).getId();
+
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RequestResponseDTO> createRequests() {
+        List<CreateRequestDTO> dtos = BenchmarkData.createRequestDTOs(projectId, siteId, batchSize, 8, random);
+        return requestService.createRequests(dtos, engineerEmail);
+    }
+}
@@ -0,0 +1,45 @@
+package com.zilla.eproc.model;
+
+import com.zilla.eproc.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computed totals on Request and PurchaseOrder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TotalValueBenchmark {
+
+    @Param({ "10", "200" })
+    int lineCount;
+
+    private Request request;
+    private PurchaseOrder purchaseOrder;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        User owner = BenchmarkData.user(1, Role.OWNER);
+        Site site = BenchmarkData.site(1, BenchmarkData.project(1, owner));
+        request = BenchmarkData.request(1, site, BenchmarkData.user(2, Role.ENGINEER), lineCount, random);
+        purchaseOrder = BenchmarkData.purchaseOrder(1, request, lineCount, random);
+    }
+
+    @Benchmark
+    public Double requestTotalValue() {
+        return request.getTotalValue();
+    }
+
+    @Benchmark
+    public BigDecimal purchaseOrderTotalValue() {
+        return purchaseOrder.getTotalValue();
+    }
+}
@@ -0,0 +1,47 @@
+package com.zilla.eproc.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation and claim extraction as done per authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("129f0475b767d565a9460de4e3b6b3e6e5bf1edb73516050c612d6919fc83544", 900_000L);
+        token = jwtUtil.generateToken("engineer@bench.local", "ENGINEER");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return jwtUtil.getEmailFromToken(token);
+    }
+
+    @Benchmark
+    public String validateThenGetEmail() {
+        return jwtUtil.validateToken(token) ? jwtUtil.getEmailFromToken(token) : null;
+    }
+
+    @Benchmark
+    public Claims parseVerifiedClaims() {
+        return jwtUtil.parseVerifiedClaims(token).orElse(null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.zilla.eproc.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login password checks per second on one core, for each bcrypt strength
+ * eproc.auth.password.bcrypt-strength may be set to. Multiply by
+ * verify-threads for the login capacity of a node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({"10", "11", "12", "13"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("site-engineer-password");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches("site-engineer-password", hash);
+    }
+}
@@ -0,0 +1,112 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.BenchmarkData;
+import com.zilla.eproc.dto.DuplicateWarningDTO;
+import com.zilla.eproc.model.Request;
+import com.zilla.eproc.model.Role;
+import com.zilla.eproc.model.Site;
+import com.zilla.eproc.model.User;
+import com.zilla.eproc.repository.MaterialRepository;
+import com.zilla.eproc.util.MaterialNameNormalizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duplicate detection hot paths: timeline overlap, warning mapping and the
+ * fuzzy lookup in the per-site material name index, both over synthetic
+ * names and over a site vocabulary shaped like real intake (a few dozen
+ * materials in many brands, finishes and sizes, sharing common trigrams).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DuplicateDetectionBenchmark {
+
+    private static final String[] MATERIALS = { "portland cement", "white cement", "river sand", "plaster sand",
+            "ballast", "hardcore", "steel bar y", "binding wire", "bricks", "concrete blocks", "roofing sheets",
+            "ridge cap", "roofing nails", "wire nails", "pvc pipe", "gi pipe", "ppr pipe", "elbow", "tee",
+            "ceramic tiles", "floor tiles", "tile adhesive", "emulsion paint", "gloss paint", "wood primer",
+            "timber", "plywood", "mdf board", "gypsum board", "cable", "conduit", "socket outlet", "light switch",
+            "water tank", "damp proof membrane", "waterproofing", "ready mix concrete c", "aggregate", "glass",
+            "door hinge" };
+    private static final String[] QUALIFIERS = { "", "grey", "white", "black", "blue", "red", "heavy duty",
+            "standard", "premium", "galvanized", "treated", "fine", "coarse", "imported", "local", "bamburi",
+            "simba", "mombasa", "crown", "basco" };
+    private static final String[] SPECS = { "50kg", "25kg", "1t", "6mm", "8mm", "10mm", "12mm", "16mm", "20mm",
+            "25mm", "3m", "6m", "12m", "20l", "4l", "1l", "2 5mm2", "100m", "600x600", "32" };
+
+    @Param({ "1000", "20000", "50000" })
+    int namesPerSite;
+
+    private DuplicateDetectionService duplicateDetectionService;
+    private MaterialNameIndex materialNameIndex;
+    private MaterialNameIndex realisticSiteIndex;
+    private Request candidate;
+    private List<String> requestedNames;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        materialNameIndex = new MaterialNameIndex((MaterialRepository) null, new TrigramMaterialNameMatcher(), 0.5,
+                2000);
+        for (int i = 0; i < namesPerSite; i++) {
+            materialNameIndex.add(1L, "material " + i + " grade " + (i % 7));
+        }
+        materialNameIndex.add(1L, "portland cement 50");
+
+        realisticSiteIndex = new MaterialNameIndex((MaterialRepository) null, new TrigramMaterialNameMatcher(), 0.5,
+                2000);
+        Random vocabularyRandom = new Random(7);
+        Set<String> names = new HashSet<>();
+        while (names.size() < namesPerSite) {
+            String name = QUALIFIERS[vocabularyRandom.nextInt(QUALIFIERS.length)] + " "
+                    + MATERIALS[vocabularyRandom.nextInt(MATERIALS.length)] + " "
+                    + SPECS[vocabularyRandom.nextInt(SPECS.length)] + " "
+                    + QUALIFIERS[vocabularyRandom.nextInt(QUALIFIERS.length)];
+            String normalized = MaterialNameNormalizer.normalize(name);
+            if (names.add(normalized)) {
+                realisticSiteIndex.add(1L, normalized);
+            }
+        }
+        duplicateDetectionService = new DuplicateDetectionService(null, materialNameIndex);
+
+        User owner = BenchmarkData.user(1, Role.OWNER);
+        Site site = BenchmarkData.site(1, BenchmarkData.project(1, owner));
+        candidate = BenchmarkData.request(1, site, BenchmarkData.user(2, Role.ENGINEER), 10, random);
+        requestedNames = List.of("cement 50", "river sand", "steel bars y12");
+        start = candidate.getPlannedStartDate().plusDays(2);
+        end = candidate.getPlannedEndDate().plusDays(2);
+    }
+
+    @Benchmark
+    public Double calculateTimelineOverlap() {
+        return duplicateDetectionService.calculateTimelineOverlap(
+                candidate.getPlannedStartDate(), candidate.getPlannedEndDate(), start, end);
+    }
+
+    @Benchmark
+    public DuplicateWarningDTO mapToDuplicateWarning() {
+        return duplicateDetectionService.mapToDuplicateWarning(candidate, requestedNames, start, end);
+    }
+
+    @Benchmark
+    public Set<String> findSimilarNames() {
+        return materialNameIndex.findSimilar(1L, "cement 50");
+    }
+
+    @Benchmark
+    public Set<String> findSimilarNamesRealisticSite() {
+        return realisticSiteIndex.findSimilar(1L, "grey portland cement 50kg bamburi");
+    }
+}
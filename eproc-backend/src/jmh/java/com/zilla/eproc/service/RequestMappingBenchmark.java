@@ -0,0 +1,84 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.BenchmarkData;
+import com.zilla.eproc.dto.RequestResponseDTO;
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.repository.RequestRepository;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Request to response DTO mapping for a page of requests, with and without
+ * duplicate-detail expansion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestMappingBenchmark {
+
+    @Param({ "20", "100" })
+    int pageSize;
+
+    @Param({ "0", "25" })
+    int duplicatePercent;
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @InjectMocks
+    private RequestService requestService;
+
+    private List<Request> page;
+    private AutoCloseable mocks;
+
+    @Setup
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        Random random = new Random(42);
+        User owner = BenchmarkData.user(1, Role.OWNER);
+        User engineer = BenchmarkData.user(2, Role.ENGINEER);
+        Site site = BenchmarkData.site(1, BenchmarkData.project(1, owner));
+
+        List<Request> originals = new ArrayList<>();
+        page = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Request request = BenchmarkData.request(i + 1, site, engineer, 8, random);
+            if (random.nextInt(100) < duplicatePercent) {
+                Request original = BenchmarkData.request(10_000 + i, site, engineer, 8, random);
+                originals.add(original);
+                request.setIsDuplicateFlagged(true);
+                request.setDuplicateOfRequestId(original.getId());
+            }
+            page.add(request);
+        }
+        when(requestRepository.findWithMaterialsByIdIn(any())).thenReturn(originals);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Benchmark
+    public List<RequestResponseDTO> mapPageWithMaterials() {
+        return requestService.mapToResponseDTOs(page, true);
+    }
+
+    @Benchmark
+    public List<RequestResponseDTO> mapPageWithoutMaterials() {
+        return requestService.mapToResponseDTOs(page, false);
+    }
+}
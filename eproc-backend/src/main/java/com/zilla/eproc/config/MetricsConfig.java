@@ -0,0 +1,49 @@
+package com.zilla.eproc.config;
+
+import com.zilla.eproc.metrics.EntityLoadCountingInterceptor;
+import com.zilla.eproc.metrics.SqlCountingInspector;
+import com.zilla.eproc.security.ActiveUserCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks per-request SQL counting into Hibernate (see QueryCounter) and
+ * publishes the in-process caches' statistics.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlCountingInspector());
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+        };
+    }
+
+    /**
+     * Active-user cache lookups by result (hit rate = hit / (hit + miss))
+     * and current size, following Micrometer's cache.gets convention.
+     */
+    @Bean
+    public MeterBinder activeUserCacheMetrics(ActiveUserCache activeUserCache) {
+        return registry -> {
+            FunctionCounter.builder("eproc.auth.user.cache.gets", activeUserCache, ActiveUserCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("Active-user cache lookups answered from the cache")
+                    .register(registry);
+            FunctionCounter.builder("eproc.auth.user.cache.gets", activeUserCache, ActiveUserCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("Active-user cache lookups that loaded the user")
+                    .register(registry);
+            Gauge.builder("eproc.auth.user.cache.size", activeUserCache, ActiveUserCache::getSize)
+                    .description("Users currently cached")
+                    .register(registry);
+        };
+    }
+}
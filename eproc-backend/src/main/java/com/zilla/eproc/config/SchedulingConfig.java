@@ -0,0 +1,12 @@
+package com.zilla.eproc.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled maintenance jobs (e.g. dashboard counter reconciliation).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
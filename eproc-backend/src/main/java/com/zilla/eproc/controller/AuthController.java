@@ -4,14 +4,14 @@ import com.zilla.eproc.dto.AuthResponse;
 import com.zilla.eproc.dto.ChangePasswordRequest;
 import com.zilla.eproc.dto.LoginRequest;
 import com.zilla.eproc.dto.RegisterRequest;
-import com.zilla.eproc.model.RefreshToken;
 import com.zilla.eproc.model.User;
 import com.zilla.eproc.security.JwtUtil;
 import com.zilla.eproc.service.AuthService;
 import com.zilla.eproc.service.RefreshTokenService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
@@ -19,25 +19,38 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST controller for authentication endpoints.
  */
 @RestController
 @RequestMapping("/api/auth")
-@RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
     private final RefreshTokenService refreshTokenService;
     private final JwtUtil jwtUtil;
+    private final AsyncTaskExecutor taskExecutor;
+
+    public AuthController(
+            AuthService authService,
+            RefreshTokenService refreshTokenService,
+            JwtUtil jwtUtil,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
+        this.authService = authService;
+        this.refreshTokenService = refreshTokenService;
+        this.jwtUtil = jwtUtil;
+        this.taskExecutor = taskExecutor;
+    }
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
         User user = authService.register(request);
 
         ResponseCookie jwtCookie = jwtUtil.generateJwtCookie(user.getEmail(), user.getRole().name());
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
-        ResponseCookie jwtRefreshCookie = jwtUtil.generateRefreshJwtCookie(refreshToken.getToken());
+        String refreshToken = refreshTokenService.createRefreshToken(user.getId());
+        ResponseCookie jwtRefreshCookie = jwtUtil.generateRefreshJwtCookie(refreshToken);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
@@ -50,24 +63,29 @@ public class AuthController {
                         .build());
     }
 
+    /**
+     * Completes asynchronously: the request thread is released while the
+     * password is being checked. Issuing the tokens writes to the database,
+     * so it runs on the MVC task executor rather than the hashing pool.
+     */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        User user = authService.login(request);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return authService.login(request).thenApplyAsync(user -> {
+            ResponseCookie jwtCookie = jwtUtil.generateJwtCookie(user.getEmail(), user.getRole().name());
+            String refreshToken = refreshTokenService.createRefreshToken(user.getId());
+            ResponseCookie jwtRefreshCookie = jwtUtil.generateRefreshJwtCookie(refreshToken);
 
-        ResponseCookie jwtCookie = jwtUtil.generateJwtCookie(user.getEmail(), user.getRole().name());
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
-        ResponseCookie jwtRefreshCookie = jwtUtil.generateRefreshJwtCookie(refreshToken.getToken());
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
-                .header(HttpHeaders.SET_COOKIE, jwtRefreshCookie.toString())
-                .body(AuthResponse.builder()
-                        .email(user.getEmail())
-                        .role(user.getRole())
-                        .name(user.getName())
-                        .id(user.getId())
-                        .requirePasswordChange(user.getRequirePasswordChange())
-                        .build());
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
+                    .header(HttpHeaders.SET_COOKIE, jwtRefreshCookie.toString())
+                    .body(AuthResponse.builder()
+                            .email(user.getEmail())
+                            .role(user.getRole())
+                            .name(user.getName())
+                            .id(user.getId())
+                            .requirePasswordChange(user.getRequirePasswordChange())
+                            .build());
+        }, taskExecutor);
     }
 
     @PostMapping("/refresh")
@@ -75,22 +93,20 @@ public class AuthController {
         String refreshToken = jwtUtil.getJwtRefreshFromCookies(request);
 
         if ((refreshToken != null) && (refreshToken.length() > 0)) {
-            return refreshTokenService.findByToken(refreshToken)
-                    .map(refreshTokenService::verifyExpiration)
-                    .map(RefreshToken::getUser)
-                    .map(user -> {
-                        // Rotation: delete old token and create new one
-                        refreshTokenService.delete(refreshTokenService.findByToken(refreshToken).get());
-                        RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user.getId());
+            return refreshTokenService.rotate(refreshToken)
+                    .map(rotation -> {
+                        // Rotation: the old token stops working, the new one keeps the session
+                        User user = rotation.user();
                         ResponseCookie jwtCookie = jwtUtil.generateJwtCookie(user.getEmail(), user.getRole().name());
-                        ResponseCookie jwtRefreshCookie = jwtUtil.generateRefreshJwtCookie(newRefreshToken.getToken());
+                        ResponseCookie jwtRefreshCookie = jwtUtil.generateRefreshJwtCookie(rotation.token());
 
                         return ResponseEntity.ok()
                                 .header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
                                 .header(HttpHeaders.SET_COOKIE, jwtRefreshCookie.toString())
                                 .body("Token Refreshed Successfully!");
                     })
-                    .orElseThrow(() -> new RuntimeException("Refresh token is not in database!"));
+                    .orElseThrow(() -> new RuntimeException(
+                            "Refresh token is invalid or expired. Please make a new signin request"));
         }
         return ResponseEntity.badRequest().body("Refresh Token is empty!");
     }
@@ -1,13 +1,16 @@
 package com.zilla.eproc.controller;
 
 import com.zilla.eproc.dto.CreatePurchaseOrderDTO;
+import com.zilla.eproc.dto.CursorPageDTO;
 import com.zilla.eproc.dto.PurchaseOrderResponseDTO;
 import com.zilla.eproc.service.ProcurementService;
+import com.zilla.eproc.util.ETags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -34,16 +37,51 @@ public class ProcurementController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Create several purchase orders in one transaction, e.g. approved
+     * requests split by vendor.
+     * POST /api/purchase-orders/bulk
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<PurchaseOrderResponseDTO>> createPurchaseOrders(
+            @Valid @RequestBody List<CreatePurchaseOrderDTO> dtos,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        List<PurchaseOrderResponseDTO> response = procurementService.createPurchaseOrders(dtos, userEmail);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     /**
      * Get all purchase orders for a project.
+     * Answers 304 when If-None-Match carries the current ETag.
      */
     @GetMapping("/project/{projectId}")
     public ResponseEntity<List<PurchaseOrderResponseDTO>> getProjectPurchaseOrders(
             @PathVariable Long projectId,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         String userEmail = authentication.getName();
+        String eTag = procurementService.getProjectPurchaseOrdersETag(projectId, userEmail);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<PurchaseOrderResponseDTO> response = procurementService.getProjectPurchaseOrders(projectId, userEmail);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETags.REVALIDATE).body(response);
+    }
+
+    /**
+     * Paginated purchase orders for a project, newest first.
+     * GET /api/purchase-orders/project/{projectId}/page?cursor=&limit=
+     */
+    @GetMapping("/project/{projectId}/page")
+    public ResponseEntity<CursorPageDTO<PurchaseOrderResponseDTO>> getProjectPurchaseOrdersPage(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        return ResponseEntity.ok(procurementService.getProjectPurchaseOrdersPage(
+                projectId, userEmail, cursor, limit));
     }
 
     /**
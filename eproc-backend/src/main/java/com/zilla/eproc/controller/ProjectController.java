@@ -5,12 +5,14 @@ import com.zilla.eproc.dto.UpdateProjectStatusDTO;
 import com.zilla.eproc.dto.UserSummaryDTO;
 import com.zilla.eproc.model.ProjectStatus;
 import com.zilla.eproc.service.ProjectService;
+import com.zilla.eproc.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -30,12 +32,18 @@ public class ProjectController {
      * Get projects visible to the current user.
      * PROJECT_OWNER: sees only their own projects.
      * ENGINEER: sees projects they have assignments on.
+     * Answers 304 when If-None-Match carries the current ETag.
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<ProjectDTO>> getProjects(Authentication authentication) {
+    public ResponseEntity<List<ProjectDTO>> getProjects(Authentication authentication, WebRequest webRequest) {
         String email = authentication.getName();
-        return ResponseEntity.ok(projectService.getProjectsForUser(email));
+        String eTag = projectService.getProjectsForUserETag(email);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETags.REVALIDATE)
+                .body(projectService.getProjectsForUser(email));
     }
 
     /**
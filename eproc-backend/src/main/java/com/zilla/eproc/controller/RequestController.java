@@ -1,8 +1,12 @@
 package com.zilla.eproc.controller;
 
 import com.zilla.eproc.dto.CreateRequestDTO;
+import com.zilla.eproc.dto.CursorPageDTO;
+import com.zilla.eproc.dto.RequestListFilter;
 import com.zilla.eproc.dto.RequestResponseDTO;
+import com.zilla.eproc.dto.RequestSummaryDTO;
 import com.zilla.eproc.service.RequestService;
+import com.zilla.eproc.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -10,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -39,16 +44,22 @@ public class RequestController {
 
     /**
      * Get all requests for the current user (if project owner) or specific role
-     * logic.
+     * logic. Answers 304 when If-None-Match carries the current ETag.
      * GET /api/requests
      */
     @GetMapping
     public ResponseEntity<List<RequestResponseDTO>> getAllRequests(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
+        // Computed before the list: a change in between costs a re-send, never a stale 304
+        String eTag = requestService.getAllManagerRequestsETag(userDetails.getUsername());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         // This endpoint returns all requests for a Project Owner across all their
         // projects
         List<RequestResponseDTO> response = requestService.getAllManagerRequests(userDetails.getUsername());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETags.REVALIDATE).body(response);
     }
 
     /**
@@ -70,10 +81,15 @@ public class RequestController {
      */
     @GetMapping("/my-requests")
     public ResponseEntity<List<RequestResponseDTO>> getMyRequests(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
 
+        String eTag = requestService.getMyRequestsETag(userDetails.getUsername());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<RequestResponseDTO> response = requestService.getMyRequests(userDetails.getUsername());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETags.REVALIDATE).body(response);
     }
 
     /**
@@ -83,10 +99,15 @@ public class RequestController {
     @GetMapping("/project/{projectId}")
     public ResponseEntity<List<RequestResponseDTO>> getProjectRequests(
             @PathVariable Long projectId,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
 
+        String eTag = requestService.getProjectRequestsETag(projectId, userDetails.getUsername());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<RequestResponseDTO> response = requestService.getProjectRequests(projectId, userDetails.getUsername());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETags.REVALIDATE).body(response);
     }
 
     /**
@@ -109,10 +130,76 @@ public class RequestController {
      */
     @GetMapping("/pending")
     public ResponseEntity<List<RequestResponseDTO>> getPendingRequests(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
 
+        String eTag = requestService.getPendingRequestsETag(userDetails.getUsername());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<RequestResponseDTO> response = requestService.getPendingRequests(userDetails.getUsername());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETags.REVALIDATE).body(response);
+    }
+
+    /**
+     * Paginated summaries of all requests across the current owner's projects.
+     * GET /api/requests/page?cursor=&limit=&status=&siteId=&priority=&createdFrom=&createdTo=
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<RequestSummaryDTO>> getAllRequestsPage(
+            RequestListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        return ResponseEntity.ok(requestService.getAllManagerRequestsPage(
+                userDetails.getUsername(), filter, cursor, limit));
+    }
+
+    /**
+     * Paginated summaries of requests created by the current user.
+     * GET /api/requests/my-requests/page
+     */
+    @GetMapping("/my-requests/page")
+    public ResponseEntity<CursorPageDTO<RequestSummaryDTO>> getMyRequestsPage(
+            RequestListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        return ResponseEntity.ok(requestService.getMyRequestsPage(
+                userDetails.getUsername(), filter, cursor, limit));
+    }
+
+    /**
+     * Paginated summaries of requests for a project (for project owners).
+     * GET /api/requests/project/{projectId}/page
+     */
+    @GetMapping("/project/{projectId}/page")
+    public ResponseEntity<CursorPageDTO<RequestSummaryDTO>> getProjectRequestsPage(
+            @PathVariable Long projectId,
+            RequestListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        return ResponseEntity.ok(requestService.getProjectRequestsPage(
+                projectId, userDetails.getUsername(), filter, cursor, limit));
+    }
+
+    /**
+     * Paginated summaries of pending requests for the current project owner.
+     * GET /api/requests/pending/page
+     */
+    @GetMapping("/pending/page")
+    public ResponseEntity<CursorPageDTO<RequestSummaryDTO>> getPendingRequestsPage(
+            RequestListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        return ResponseEntity.ok(requestService.getPendingRequestsPage(
+                userDetails.getUsername(), filter, cursor, limit));
     }
 
     /**
@@ -0,0 +1,44 @@
+package com.zilla.eproc.dto;
+
+import com.zilla.eproc.model.Priority;
+import com.zilla.eproc.model.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact Request row for paginated listings.
+ * Built directly by a projection query (see RequestRepository), so listing
+ * never loads the materials collection. Field order is the constructor order
+ * used by that query.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestSummaryDTO {
+
+    private Long id;
+    private Long projectId;
+    private String projectName;
+    private Long siteId;
+    private String siteName;
+    private String title;
+    private LocalDateTime plannedStartDate;
+    private LocalDateTime plannedEndDate;
+    private Priority priority;
+    private RequestStatus status;
+    private String boqReferenceCode;
+    private Long createdById;
+    private String createdByName;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Boolean isDuplicateFlagged;
+    private Long duplicateOfRequestId;
+    private Long materialCount;
+    private BigDecimal totalValue;
+}
@@ -1,5 +1,8 @@
 package com.zilla.eproc.filter;
 
+import com.zilla.eproc.metrics.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,38 +11,97 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Filter to log incoming HTTP requests.
+ * Filter to log incoming HTTP requests with their duration and SQL work.
+ *
+ * Statements and loaded entities per request are recorded as distribution
+ * summaries tagged by route template (latency histograms per route come from
+ * Spring's http.server.requests timer). Requests over the query budget are
+ * logged as warnings. Runs ahead of the security chain so the auth filter's
+ * lookups are counted too.
  */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
 public class RequestLoggingFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
 
+    private final MeterRegistry meterRegistry;
+    private final int queryBudget;
+
+    public RequestLoggingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${eproc.metrics.query-budget:25}") int queryBudget) {
+        this.meterRegistry = meterRegistry;
+        this.queryBudget = queryBudget;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        
-        long startTime = System.currentTimeMillis();
 
-        chain.doFilter(request, response);
+        long startTime = System.nanoTime();
+        QueryCounter.Counts counts = QueryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCounter.stop(counts);
+        }
 
-        long duration = System.currentTimeMillis() - startTime;
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
 
         if (request instanceof HttpServletRequest) {
             HttpServletRequest httpRequest = (HttpServletRequest) request;
             HttpServletResponse httpResponse = (HttpServletResponse) response;
-            logger.info("[{}] {} -> status={} ({} ms)", 
-                        httpRequest.getMethod(), 
-                        httpRequest.getRequestURI(), 
+            String route = route(httpRequest);
+
+            // Async requests finish on another thread; only their synchronous part was counted
+            if (!httpRequest.isAsyncStarted()) {
+                record("eproc.http.sql.statements", httpRequest.getMethod(), route, counts.getStatements());
+                record("eproc.http.sql.entities.loaded", httpRequest.getMethod(), route, counts.getEntitiesLoaded());
+            }
+
+            logger.info("[{}] {} -> status={} ({} ms, {} sql, {} entities)",
+                        httpRequest.getMethod(),
+                        httpRequest.getRequestURI(),
                         httpResponse.getStatus(),
-                        duration);
+                        duration,
+                        counts.getStatements(),
+                        counts.getEntitiesLoaded());
+
+            if (queryBudget > 0 && counts.getStatements() > queryBudget) {
+                logger.warn("[{}] {} ran {} SQL statements, over the budget of {} (possible N+1)",
+                        httpRequest.getMethod(), route, counts.getStatements(), queryBudget);
+            }
         }
     }
+
+    private void record(String name, String method, String route, int value) {
+        DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", route)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(value);
+    }
+
+    /**
+     * Route template such as /api/requests/{id}; never the raw path, to keep
+     * metric cardinality bounded.
+     */
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
 }
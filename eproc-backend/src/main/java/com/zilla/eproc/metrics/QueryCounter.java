@@ -0,0 +1,126 @@
+package com.zilla.eproc.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Counts the SQL statements and loaded entities of the work done on the
+ * current thread between {@link #start()} and {@link #stop(Counts)},
+ * typically one HTTP request.
+ *
+ * Counters nest: a statement counts towards every counter open on the
+ * thread, so a test can measure a request that the logging filter measures
+ * too. Fed by {@link SqlCountingInspector} and
+ * {@link EntityLoadCountingInterceptor}. Work handed to other threads (e.g.
+ * async login) is not counted.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Deque<Counts>> OPEN = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Start counting on this thread.
+     */
+    public static Counts start() {
+        return start(false);
+    }
+
+    /**
+     * Start counting on this thread, optionally keeping the SQL text of each
+     * statement (for test failure messages; not for production use).
+     */
+    public static Counts start(boolean captureSql) {
+        Counts counts = new Counts(captureSql);
+        OPEN.get().push(counts);
+        return counts;
+    }
+
+    /**
+     * Stop a counter started on this thread. Its counts stay readable.
+     */
+    public static void stop(Counts counts) {
+        Deque<Counts> open = OPEN.get();
+        open.remove(counts);
+        if (open.isEmpty()) {
+            OPEN.remove();
+        }
+    }
+
+    static void statementPrepared(String sql) {
+        Deque<Counts> open = OPEN.get();
+        if (open.isEmpty()) {
+            OPEN.remove();
+            return;
+        }
+        boolean select = sql.stripLeading().regionMatches(true, 0, "select", 0, 6)
+                || sql.stripLeading().regionMatches(true, 0, "with", 0, 4);
+        for (Counts counts : open) {
+            counts.statements++;
+            if (select) {
+                counts.selects++;
+            }
+            if (counts.sql != null) {
+                counts.sql.add(sql);
+            }
+        }
+    }
+
+    static void entityLoaded() {
+        Deque<Counts> open = OPEN.get();
+        if (open.isEmpty()) {
+            OPEN.remove();
+            return;
+        }
+        for (Counts counts : open) {
+            counts.entitiesLoaded++;
+        }
+    }
+
+    /**
+     * Statements prepared (all, and reads only) and entities hydrated from
+     * result rows. Rows read into DTO projections are not entities and are
+     * not counted.
+     */
+    public static final class Counts {
+        private final List<String> sql;
+        private int statements;
+        private int selects;
+        private int entitiesLoaded;
+
+        private Counts(boolean captureSql) {
+            this.sql = captureSql ? new ArrayList<>() : null;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getSelects() {
+            return selects;
+        }
+
+        public int getEntitiesLoaded() {
+            return entitiesLoaded;
+        }
+
+        /**
+         * SQL text of each statement, if captured.
+         */
+        public List<String> getSql() {
+            return sql != null ? Collections.unmodifiableList(sql) : List.of();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d statements (%d selects), %d entities loaded",
+                    statements, selects, entitiesLoaded);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.zilla.eproc.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version of a node-local cache's contents, bumped whenever any node
+ * invalidates part of it (see InvalidationStamp).
+ */
+@Entity
+@Table(name = "cache_stamps")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStamp {
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
@@ -0,0 +1,10 @@
+package com.zilla.eproc.model;
+
+/**
+ * Scope of a materialized dashboard counter.
+ */
+public enum CounterScope {
+    PROJECT, // requests of one project
+    OWNER, // requests across all projects of one owner
+    CREATOR // requests created by one user (engineer dashboard)
+}
@@ -0,0 +1,53 @@
+package com.zilla.eproc.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized request count for one (scope, scope id, status).
+ * Kept up to date in the same transaction as every request status change,
+ * so dashboards read counters by primary key instead of counting requests.
+ */
+@Entity
+@Table(name = "dashboard_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardCounter {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "scope_type", nullable = false, length = 20)
+        private CounterScope scopeType;
+
+        @Column(name = "scope_id", nullable = false)
+        private Long scopeId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "status", nullable = false, length = 20)
+        private RequestStatus status;
+    }
+}
@@ -2,9 +2,11 @@ package com.zilla.eproc.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -13,6 +15,10 @@ import java.time.LocalDateTime;
 /**
  * Delivery Item entity - Individual item in a delivery.
  * Linked to a PurchaseOrderItem to track what was received.
+ *
+ * Associations are left out of equals/hashCode/toString: Hibernate hashes
+ * the items when dirty-checking a delivery, which must not load their PO
+ * items' requests.
  */
 @Entity
 @Table(name = "delivery_items")
@@ -26,10 +32,14 @@ public class DeliveryItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "delivery_id", nullable = false)
     private Delivery delivery;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "purchase_order_item_id", nullable = false)
     private PurchaseOrderItem purchaseOrderItem;
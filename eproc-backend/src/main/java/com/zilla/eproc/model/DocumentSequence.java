@@ -0,0 +1,38 @@
+package com.zilla.eproc.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counter row backing a reference code series (e.g. "BOQ-2026", "PO-2026").
+ * Nodes reserve blocks of values from this row under a row lock and hand
+ * them out from memory, so codes never collide across nodes.
+ */
+@Entity
+@Table(name = "document_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentSequence {
+
+    @Id
+    @Column(name = "sequence_name", length = 50)
+    private String name;
+
+    /**
+     * First value that has not yet been reserved by any node.
+     */
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.zilla.eproc.model;
 
+import com.zilla.eproc.util.MaterialNameNormalizer;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -27,7 +28,8 @@ import java.time.LocalDateTime;
 public class Material {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "materials_seq")
+    @SequenceGenerator(name = "materials_seq", sequenceName = "materials_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -38,6 +40,20 @@ public class Material {
     @Column(nullable = false, length = 200)
     private String name;
 
+    /**
+     * Name used for duplicate detection (lowercased, punctuation and units
+     * stripped). Maintained on write from {@link #name}.
+     */
+    @Column(name = "normalized_name", nullable = false, length = 200)
+    private String normalizedName;
+
+    /**
+     * Site of the parent request, copied here so duplicate lookups are served
+     * from the (site_id, normalized_name) index without touching requests.
+     */
+    @Column(name = "site_id", nullable = false)
+    private Long siteId;
+
     @Column(nullable = false, precision = 18, scale = 2)
     private BigDecimal quantity;
 
@@ -80,6 +96,18 @@ public class Material {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void deriveLookupColumns() {
+        normalizedName = MaterialNameNormalizer.normalize(name);
+        if (request != null && request.getSite() != null) {
+            siteId = request.getSite().getId();
+        }
+    }
+
     /**
      * Computed total estimate = quantity × rateEstimate.
      */
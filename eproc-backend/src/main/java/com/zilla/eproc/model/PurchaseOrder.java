@@ -25,8 +25,12 @@ import java.util.List;
 @Builder
 public class PurchaseOrder {
 
+    /**
+     * Sequence-generated (pooled) so bulk PO creation can use JDBC batch inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_orders_seq")
+    @SequenceGenerator(name = "purchase_orders_seq", sequenceName = "purchase_orders_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "po_number", unique = true, nullable = false, length = 50)
@@ -63,6 +67,13 @@ public class PurchaseOrder {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Bumped by every delivery, so concurrent deliveries that each see the
+     * other's items as outstanding cannot both leave the PO open.
+     */
+    @Version
+    private Long version;
+
     /**
      * Items on this purchase order.
      */
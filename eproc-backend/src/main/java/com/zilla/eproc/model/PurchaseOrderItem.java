@@ -2,9 +2,11 @@ package com.zilla.eproc.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -15,6 +17,9 @@ import java.util.List;
 /**
  * Purchase Order Item entity - Individual item on a PO.
  * Links to a Request and tracks ordered quantity and pricing.
+ *
+ * Associations are left out of equals/hashCode/toString so hashing an item
+ * does not load its request.
  */
 @Entity
 @Table(name = "purchase_order_items")
@@ -24,14 +29,22 @@ import java.util.List;
 @Builder
 public class PurchaseOrderItem {
 
+    /**
+     * Sequence-generated (pooled) so bulk PO creation can use JDBC batch inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_order_items_seq")
+    @SequenceGenerator(name = "purchase_order_items_seq", sequenceName = "purchase_order_items_id_seq", allocationSize = 50)
     private Long id;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "purchase_order_id", nullable = false)
     private PurchaseOrder purchaseOrder;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "request_id", nullable = false)
     private Request request;
@@ -51,6 +64,21 @@ public class PurchaseOrderItem {
     @Column(name = "total_price", nullable = false, precision = 15, scale = 2)
     private BigDecimal totalPrice;
 
+    /**
+     * Running total of delivered quantity, maintained as delivery items are
+     * recorded so reads never load delivery history.
+     */
+    @Column(name = "delivered_qty", nullable = false, precision = 15, scale = 3)
+    @Builder.Default
+    private BigDecimal deliveredQty = BigDecimal.ZERO;
+
+    /**
+     * Concurrent deliveries against the same item conflict instead of
+     * losing an increment.
+     */
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -59,17 +87,24 @@ public class PurchaseOrderItem {
      * Delivery items for this PO item.
      */
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToMany(mappedBy = "purchaseOrderItem", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DeliveryItem> deliveryItems = new ArrayList<>();
 
     /**
-     * Calculate total delivered quantity for this item.
+     * Add a delivered quantity to the running total.
+     */
+    public void recordDelivered(BigDecimal quantity) {
+        deliveredQty = deliveredQty.add(quantity);
+    }
+
+    /**
+     * Total delivered quantity for this item.
      */
     @Transient
     public BigDecimal getTotalDelivered() {
-        return deliveryItems.stream()
-                .map(DeliveryItem::getQuantityDelivered)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return deliveredQty;
     }
 
     /**
@@ -77,6 +112,6 @@ public class PurchaseOrderItem {
      */
     @Transient
     public boolean isFullyDelivered() {
-        return getTotalDelivered().compareTo(orderedQty) >= 0;
+        return deliveredQty.compareTo(orderedQty) >= 0;
     }
 }
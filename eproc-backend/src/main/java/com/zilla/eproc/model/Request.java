@@ -27,8 +27,12 @@ import java.util.List;
 @Builder
 public class Request {
 
+    /**
+     * Sequence-generated (pooled) so bulk intake can use JDBC batch inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -88,6 +92,14 @@ public class Request {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Bumped on every status change, including those derived from material
+     * decisions, so concurrent transitions conflict instead of one
+     * overwriting the other.
+     */
+    @Version
+    private Long version;
+
     /**
      * Material items that belong to this request.
      */
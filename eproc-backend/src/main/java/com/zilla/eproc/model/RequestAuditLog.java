@@ -24,7 +24,8 @@ import java.time.LocalDateTime;
 public class RequestAuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_audit_logs_seq")
+    @SequenceGenerator(name = "request_audit_logs_seq", sequenceName = "request_audit_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
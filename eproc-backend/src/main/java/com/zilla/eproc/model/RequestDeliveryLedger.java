@@ -0,0 +1,57 @@
+package com.zilla.eproc.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ordered and delivered quantity of one request across all its purchase
+ * order items. Updated in the same transaction as each PO item and delivery
+ * item insert, so delivery status checks read one row per request instead of
+ * summing PO and delivery history.
+ */
+@Entity
+@Table(name = "request_delivery_ledger")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestDeliveryLedger {
+
+    @Id
+    @Column(name = "request_id")
+    private Long requestId;
+
+    @Column(name = "ordered_qty", nullable = false, precision = 15, scale = 3)
+    @Builder.Default
+    private BigDecimal orderedQty = BigDecimal.ZERO;
+
+    @Column(name = "delivered_qty", nullable = false, precision = 15, scale = 3)
+    @Builder.Default
+    private BigDecimal deliveredQty = BigDecimal.ZERO;
+
+    /**
+     * Concurrent orders or deliveries for the same request conflict instead
+     * of losing an increment.
+     */
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public void recordOrdered(BigDecimal quantity) {
+        orderedQty = orderedQty.add(quantity);
+    }
+
+    public void recordDelivered(BigDecimal quantity) {
+        deliveredQty = deliveredQty.add(quantity);
+    }
+}
@@ -0,0 +1,27 @@
+package com.zilla.eproc.repository;
+
+import com.zilla.eproc.model.CacheStamp;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface CacheStampRepository extends JpaRepository<CacheStamp, String> {
+
+    @Query("SELECT s.version FROM CacheStamp s WHERE s.name = :name")
+    Optional<Long> findVersionByName(@Param("name") String name);
+
+    /**
+     * Bump a stamp in the caller's transaction, so other nodes see it only
+     * once the change it announces is committed.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CacheStamp s SET s.version = s.version + 1 WHERE s.name = :name")
+    int increment(@Param("name") String name);
+}
@@ -0,0 +1,39 @@
+package com.zilla.eproc.repository;
+
+import com.zilla.eproc.model.CounterScope;
+import com.zilla.eproc.model.DashboardCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DashboardCounterRepository extends JpaRepository<DashboardCounter, DashboardCounter.Key> {
+
+    /**
+     * All status counters of one scope (primary key prefix lookup).
+     */
+    @Query("SELECT c FROM DashboardCounter c WHERE c.id.scopeType = :scopeType AND c.id.scopeId = :scopeId")
+    List<DashboardCounter> findByScope(@Param("scopeType") CounterScope scopeType, @Param("scopeId") Long scopeId);
+
+    /**
+     * Add a delta to a counter in place. Returns 0 when the row does not exist yet.
+     */
+    @Modifying
+    @Query("UPDATE DashboardCounter c SET c.requestCount = c.requestCount + :delta, c.updatedAt = LOCAL DATETIME " +
+            "WHERE c.id = :id")
+    int adjust(@Param("id") DashboardCounter.Key id, @Param("delta") long delta);
+
+    /**
+     * Insert a zero counter unless it exists. A concurrent insert of the same
+     * key waits for the other transaction instead of failing this one.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_counters (scope_type, scope_id, status, request_count, updated_at) " +
+            "VALUES (:scopeType, :scopeId, :status, 0, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("scopeType") String scopeType, @Param("scopeId") Long scopeId,
+            @Param("status") String status);
+}
@@ -0,0 +1,85 @@
+package com.zilla.eproc.repository;
+
+import com.zilla.eproc.model.ProjectStatus;
+import com.zilla.eproc.model.Request;
+import com.zilla.eproc.model.RequestStatus;
+import com.zilla.eproc.model.Role;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Aggregate queries backing the dashboards.
+ * Every counter is computed in the database with GROUP BY / COUNT, so
+ * dashboard cost does not grow with the number of requests or assignments.
+ * Request counts are served from dashboard_counters; the grouped request
+ * queries here are the source of truth used to reconcile those counters.
+ */
+@org.springframework.stereotype.Repository
+public interface DashboardStatsRepository extends org.springframework.data.repository.Repository<Request, Long> {
+
+    /**
+     * Row of a requests-by-scope-and-status aggregate.
+     */
+    interface ScopedStatusCount {
+        Long getScopeId();
+
+        RequestStatus getStatus();
+
+        Long getCount();
+    }
+
+    /**
+     * Row of a projects-by-status aggregate.
+     */
+    interface ProjectStatusCount {
+        ProjectStatus getStatus();
+
+        Long getCount();
+    }
+
+    /**
+     * Requests grouped by project and status (counter reconciliation).
+     */
+    @Query("SELECT r.project.id AS scopeId, r.status AS status, COUNT(r) AS count FROM Request r " +
+            "GROUP BY r.project.id, r.status")
+    List<ScopedStatusCount> countRequestsByProjectAndStatus();
+
+    /**
+     * Requests grouped by project owner and status (counter reconciliation).
+     */
+    @Query("SELECT p.owner.id AS scopeId, r.status AS status, COUNT(r) AS count FROM Request r JOIN r.project p " +
+            "WHERE p.owner IS NOT NULL GROUP BY p.owner.id, r.status")
+    List<ScopedStatusCount> countRequestsByOwnerAndStatus();
+
+    /**
+     * Requests grouped by creator and status (counter reconciliation).
+     */
+    @Query("SELECT r.createdBy.id AS scopeId, r.status AS status, COUNT(r) AS count FROM Request r " +
+            "GROUP BY r.createdBy.id, r.status")
+    List<ScopedStatusCount> countRequestsByCreatorAndStatus();
+
+    /**
+     * Projects owned by a user, grouped by status.
+     */
+    @Query("SELECT p.status AS status, COUNT(p) AS count FROM Project p " +
+            "WHERE p.owner.id = :ownerId GROUP BY p.status")
+    List<ProjectStatusCount> countProjectsByStatusForOwner(@Param("ownerId") Long ownerId);
+
+    /**
+     * Active team assignments (excluding the owner role) on an owner's active projects.
+     */
+    @Query("SELECT COUNT(pa) FROM ProjectAssignment pa " +
+            "WHERE pa.project.owner.id = :ownerId " +
+            "AND pa.project.status = com.zilla.eproc.model.ProjectStatus.ACTIVE " +
+            "AND pa.isActive = true " +
+            "AND pa.role <> com.zilla.eproc.model.ProjectRole.PROJECT_OWNER")
+    long countActiveTeamAssignmentsForOwner(@Param("ownerId") Long ownerId);
+
+    /**
+     * Active users with a given system role.
+     */
+    @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.active = true")
+    long countActiveUsersByRole(@Param("role") Role role);
+}
@@ -27,11 +27,4 @@ public interface DeliveryItemRepository extends JpaRepository<DeliveryItem, Long
      */
     @Query("SELECT COALESCE(SUM(di.quantityDelivered), 0) FROM DeliveryItem di WHERE di.purchaseOrderItem.id = :poItemId")
     BigDecimal sumDeliveredQtyByPOItemId(@Param("poItemId") Long poItemId);
-
-    /**
-     * Calculate total delivered quantity for a request across all PO items.
-     */
-    @Query("SELECT COALESCE(SUM(di.quantityDelivered), 0) FROM DeliveryItem di " +
-            "WHERE di.purchaseOrderItem.request.id = :requestId")
-    BigDecimal sumDeliveredQtyByRequestId(@Param("requestId") Long requestId);
 }
@@ -0,0 +1,36 @@
+package com.zilla.eproc.repository;
+
+import com.zilla.eproc.model.DocumentSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DocumentSequenceRepository extends JpaRepository<DocumentSequence, String> {
+
+    /**
+     * Advance a sequence past a block of values. The row stays locked until
+     * the caller's transaction ends. Returns 0 when the sequence does not
+     * exist yet.
+     */
+    @Modifying
+    @Query("UPDATE DocumentSequence s SET s.nextValue = s.nextValue + :blockSize, s.updatedAt = LOCAL DATETIME " +
+            "WHERE s.name = :name")
+    int advance(@Param("name") String name, @Param("blockSize") long blockSize);
+
+    @Query("SELECT s.nextValue FROM DocumentSequence s WHERE s.name = :name")
+    Optional<Long> findNextValueByName(@Param("name") String name);
+
+    /**
+     * Start a sequence at 1 unless it exists. A concurrent insert of the same
+     * name waits for the other transaction instead of failing this one.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO document_sequences (sequence_name, next_value, updated_at) " +
+            "VALUES (:name, 1, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("name") String name);
+}
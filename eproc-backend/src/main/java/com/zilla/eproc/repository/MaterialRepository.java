@@ -2,6 +2,7 @@ package com.zilla.eproc.repository;
 
 import com.zilla.eproc.model.Material;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +19,21 @@ public interface MaterialRepository extends JpaRepository<Material, Long> {
      * Find all materials by request ID ordered by resource type and name.
      */
     List<Material> findByRequestIdOrderByResourceTypeAscNameAsc(Long requestId);
+
+    /**
+     * Distinct normalized material names per site across requests that are
+     * still open for duplicate detection. Used to warm the fuzzy name index.
+     */
+    @Query("SELECT DISTINCT m.siteId AS siteId, m.normalizedName AS normalizedName FROM Material m " +
+            "WHERE m.request.status IN ('PENDING', 'SUBMITTED', 'APPROVED', 'PARTIALLY_APPROVED')")
+    List<SiteMaterialName> findOpenSiteMaterialNames();
+
+    /**
+     * Row of {@link #findOpenSiteMaterialNames()}.
+     */
+    interface SiteMaterialName {
+        Long getSiteId();
+
+        String getNormalizedName();
+    }
 }
@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,4 +56,45 @@ public interface ProjectAssignmentRepository extends JpaRepository<ProjectAssign
      * Find active assignment by user email and project ID.
      */
     Optional<ProjectAssignment> findByUserEmailAndProjectId(String userEmail, Long projectId);
+
+    /**
+     * Find assignment by user ID and project ID.
+     */
+    Optional<ProjectAssignment> findByUserIdAndProjectId(Long userId, Long projectId);
+
+    /**
+     * Role, state and dates of a user's assignment on a project, read from the
+     * membership index without loading the assignment. Used by the project
+     * access cache.
+     */
+    @Query("SELECT pa.role AS role, pa.isActive AS isActive, pa.startDate AS startDate, pa.endDate AS endDate " +
+            "FROM ProjectAssignment pa WHERE pa.project.id = :projectId AND pa.user.id = :userId")
+    Optional<AssignmentStanding> findStandingByProjectIdAndUserId(
+            @Param("projectId") Long projectId,
+            @Param("userId") Long userId);
+
+    /**
+     * Find which of the given projects a user is actively assigned to with one of
+     * the given roles. Used to authorize bulk operations in a single query.
+     */
+    @Query("SELECT DISTINCT pa.project.id FROM ProjectAssignment pa " +
+            "WHERE pa.user.id = :userId AND pa.project.id IN :projectIds " +
+            "AND pa.isActive = true AND pa.role IN :roles")
+    List<Long> findActiveProjectIdsByUserIdAndRoles(
+            @Param("userId") Long userId,
+            @Param("projectIds") Collection<Long> projectIds,
+            @Param("roles") Collection<ProjectRole> roles);
+
+    /**
+     * Row of {@link #findStandingByProjectIdAndUserId(Long, Long)}.
+     */
+    interface AssignmentStanding {
+        ProjectRole getRole();
+
+        Boolean getIsActive();
+
+        LocalDate getStartDate();
+
+        LocalDate getEndDate();
+    }
 }
@@ -3,9 +3,12 @@ package com.zilla.eproc.repository;
 import com.zilla.eproc.model.Project;
 import com.zilla.eproc.model.ProjectStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
@@ -26,4 +29,44 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * Find active projects owned by an owner with isActive=true.
      */
     List<Project> findByOwnerIdAndIsActiveTrue(Long ownerId);
+
+    /**
+     * Owner of a project, without loading the project. Empty if the project
+     * does not exist; ownerId is null for projects without an owner.
+     */
+    @Query("SELECT p.id AS projectId, o.id AS ownerId FROM Project p LEFT JOIN p.owner o WHERE p.id = :projectId")
+    Optional<ProjectOwnership> findOwnershipById(@Param("projectId") Long projectId);
+
+    String VERSION_SELECT = "SELECT COUNT(DISTINCT p.id) AS rowCount, MAX(p.updatedAt) AS lastUpdated, "
+            + "COUNT(a.id) AS childCount, MAX(a.updatedAt) AS childLastUpdated "
+            + "FROM Project p LEFT JOIN p.teamAssignments a ";
+
+    /**
+     * Version of {@link #findByOwnerIdAndIsActiveTrue(Long)}, including the
+     * team assignments behind each project's team count.
+     */
+    @Query(VERSION_SELECT + "WHERE p.owner.id = :ownerId AND p.isActive = true")
+    VersionStamp findActiveVersionByOwner(@Param("ownerId") Long ownerId);
+
+    /**
+     * Version of the active projects a user is actively assigned to.
+     */
+    @Query(VERSION_SELECT + "WHERE p.isActive = true AND p.id IN ("
+            + "SELECT pa.project.id FROM ProjectAssignment pa WHERE pa.user.id = :userId AND pa.isActive = true)")
+    VersionStamp findActiveVersionByMember(@Param("userId") Long userId);
+
+    /**
+     * Version of {@link #findByIsActiveTrue()}.
+     */
+    @Query(VERSION_SELECT + "WHERE p.isActive = true")
+    VersionStamp findActiveVersion();
+
+    /**
+     * Row of {@link #findOwnershipById(Long)}.
+     */
+    interface ProjectOwnership {
+        Long getProjectId();
+
+        Long getOwnerId();
+    }
 }
@@ -2,9 +2,14 @@ package com.zilla.eproc.repository;
 
 import com.zilla.eproc.model.PurchaseOrder;
 import com.zilla.eproc.model.PurchaseOrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,9 +22,34 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     Optional<PurchaseOrder> findByPoNumber(String poNumber);
 
     /**
-     * Find all POs for a project.
+     * PO headers of a project with project, site and creator fetched; items
+     * are loaded separately (see PurchaseOrderItemRepository).
      */
-    List<PurchaseOrder> findByProjectIdOrderByCreatedAtDesc(Long projectId);
+    @EntityGraph(attributePaths = { "project", "site", "createdBy" })
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.project.id = :projectId ORDER BY po.createdAt DESC, po.id DESC")
+    List<PurchaseOrder> findHeadersByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Page of PO headers of a project, keyset-paginated on
+     * (created_at DESC, id DESC).
+     */
+    @EntityGraph(attributePaths = { "project", "site", "createdBy" })
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.project.id = :projectId "
+            + "AND (:cursorCreatedAt IS NULL OR po.createdAt < :cursorCreatedAt "
+            + "OR (po.createdAt = :cursorCreatedAt AND po.id < :cursorId)) "
+            + "ORDER BY po.createdAt DESC, po.id DESC")
+    List<PurchaseOrder> findHeadersPageByProjectId(
+            @Param("projectId") Long projectId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * PO header by id with project, site and creator fetched.
+     */
+    @EntityGraph(attributePaths = { "project", "site", "createdBy" })
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.id = :id")
+    Optional<PurchaseOrder> findHeaderById(@Param("id") Long id);
 
     /**
      * Find all POs by status.
@@ -31,8 +61,26 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
      */
     List<PurchaseOrder> findByProjectIdAndStatusOrderByCreatedAtDesc(Long projectId, PurchaseOrderStatus status);
 
+    /**
+     * Load a PO with its items in one query, for recording a delivery. Not
+     * locked here: a query lock mode applies to the fetched items too. The
+     * caller locks the PO itself.
+     */
+    @Query("SELECT po FROM PurchaseOrder po LEFT JOIN FETCH po.items WHERE po.id = :id")
+    Optional<PurchaseOrder> findWithItemsById(@Param("id") Long id);
+
     /**
      * Check if PO number exists.
      */
     boolean existsByPoNumber(String poNumber);
+
+    /**
+     * Version of {@link #findHeadersByProjectId(Long)}. Deliveries
+     * are insert-only and drive the delivered totals shown per item.
+     */
+    @Query("SELECT COUNT(DISTINCT po.id) AS rowCount, MAX(po.updatedAt) AS lastUpdated, "
+            + "COUNT(d.id) AS childCount, MAX(d.createdAt) AS childLastUpdated "
+            + "FROM PurchaseOrder po LEFT JOIN Delivery d ON d.purchaseOrder = po "
+            + "WHERE po.project.id = :projectId")
+    VersionStamp findVersionByProject(@Param("projectId") Long projectId);
 }
@@ -1,19 +1,53 @@
 package com.zilla.eproc.repository;
 
 import com.zilla.eproc.model.RefreshToken;
-import com.zilla.eproc.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+
+    /**
+     * Find a usable token by its hash, with its user.
+     */
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user " +
+            "WHERE rt.token = :tokenHash AND rt.revoked = false AND rt.expiryDate > :now")
+    Optional<RefreshToken> findActiveByTokenHash(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    /**
+     * Replace a token's hash and extend its expiry, only if it still carries
+     * the expected hash. Returns 0 if a concurrent refresh rotated it first.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE RefreshToken rt SET rt.token = :newHash, rt.expiryDate = :expiryDate " +
+            "WHERE rt.id = :id AND rt.token = :oldHash AND rt.revoked = false")
+    int rotate(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash,
+            @Param("expiryDate") Instant expiryDate);
+
+    /**
+     * Delete all but the newest {@code keep} tokens of a user.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "DELETE FROM refresh_tokens WHERE user_id = :userId AND id NOT IN " +
+            "(SELECT id FROM refresh_tokens WHERE user_id = :userId ORDER BY id DESC LIMIT :keep)",
+            nativeQuery = true)
+    int deleteOldestBeyond(@Param("userId") Long userId, @Param("keep") int keep);
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
-    int deleteByUser(User user);
+    @Query("DELETE FROM RefreshToken rt WHERE rt.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 
-    Optional<RefreshToken> findByUserAndRevokedFalse(User user);
+    /**
+     * Ids of expired or revoked tokens, oldest first, for batched purging.
+     */
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.revoked = true OR rt.expiryDate < :now ORDER BY rt.id")
+    List<Long> findPurgeableIds(@Param("now") Instant now, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.zilla.eproc.repository;
+
+import com.zilla.eproc.model.RequestDeliveryLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RequestDeliveryLedgerRepository extends JpaRepository<RequestDeliveryLedger, Long> {
+}
@@ -1,24 +1,70 @@
 package com.zilla.eproc.repository;
 
+import com.zilla.eproc.dto.RequestSummaryDTO;
+import com.zilla.eproc.model.Priority;
 import com.zilla.eproc.model.Request;
 import com.zilla.eproc.model.RequestStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
 
+    /**
+     * Summary projection for paginated listings. Material count and total value
+     * come from correlated subqueries so the materials collection is never loaded.
+     */
+    String SUMMARY_SELECT = "SELECT new com.zilla.eproc.dto.RequestSummaryDTO(" +
+            "r.id, p.id, p.name, s.id, s.name, r.title, r.plannedStartDate, r.plannedEndDate, " +
+            "r.priority, r.status, r.boqReferenceCode, u.id, u.name, r.createdAt, r.updatedAt, " +
+            "r.isDuplicateFlagged, r.duplicateOfRequestId, " +
+            "(SELECT COUNT(m) FROM Material m WHERE m.request = r), " +
+            "(SELECT COALESCE(SUM(m.quantity * m.rateEstimate), 0) FROM Material m WHERE m.request = r)) " +
+            "FROM Request r JOIN r.project p JOIN r.site s JOIN r.createdBy u ";
+
+    /**
+     * Optional listing filters followed by the keyset predicate and ordering on
+     * (created_at DESC, id DESC).
+     */
+    String SUMMARY_FILTERS_AND_KEYSET = "AND (:status IS NULL OR r.status = :status) " +
+            "AND (:siteId IS NULL OR s.id = :siteId) " +
+            "AND (:priority IS NULL OR r.priority = :priority) " +
+            "AND (:createdFrom IS NULL OR r.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR r.createdAt < :createdTo) " +
+            "AND (:cursorCreatedAt IS NULL OR r.createdAt < :cursorCreatedAt " +
+            "OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC";
+
     /**
      * Find all requests created by a specific user, ordered by creation date
      * descending.
      */
+    @EntityGraph(attributePaths = { "project", "site", "createdBy", "materials" })
     List<Request> findByCreatedByIdOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * Load a request whose status is about to be recomputed. Its version is
+     * bumped at commit even if no column changed, so concurrent decisions on
+     * its materials conflict instead of both deriving the status from a
+     * stale read.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT r FROM Request r WHERE r.id = :id")
+    Optional<Request> findForStatusChangeById(@Param("id") Long id);
+
     /**
      * Find all requests created by a specific user (not ordered).
      */
@@ -28,6 +74,7 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
      * Find all requests for a specific project, ordered by creation date
      * descending.
      */
+    @EntityGraph(attributePaths = { "project", "site", "createdBy", "materials" })
     List<Request> findByProjectIdOrderByCreatedAtDesc(Long projectId);
 
     /**
@@ -53,11 +100,13 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     /**
      * Find all pending (SUBMITTED) requests for projects owned by a specific user.
      */
+    @EntityGraph(attributePaths = { "project", "site", "createdBy", "materials" })
     List<Request> findByStatusAndProjectOwnerIdOrderByCreatedAtDesc(RequestStatus status, Long ownerId);
 
     /**
      * Find all requests for projects owned by a specific user.
      */
+    @EntityGraph(attributePaths = { "project", "site", "createdBy", "materials" })
     List<Request> findByProjectOwnerIdOrderByCreatedAtDesc(Long ownerId);
 
     /**
@@ -65,13 +114,14 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
      * Checks for requests with:
      * - Same site
      * - Overlapping timeline
-     * - Matching material names (case-insensitive)
+     * - Matching normalized material names (see MaterialNameNormalizer)
      * - Active statuses (not rejected or cancelled)
+     * Materials are matched on the (site_id, normalized_name) index.
      */
     @Query("SELECT DISTINCT r FROM Request r " +
             "JOIN r.materials m " +
-            "WHERE r.site.id = :siteId " +
-            "AND LOWER(m.name) IN :materialNames " +
+            "WHERE m.siteId = :siteId " +
+            "AND m.normalizedName IN :materialNames " +
             "AND r.status IN ('PENDING', 'SUBMITTED', 'APPROVED', 'PARTIALLY_APPROVED') " +
             "AND ((r.plannedStartDate <= :plannedEnd AND r.plannedEndDate >= :plannedStart) " +
             "OR (r.plannedStartDate IS NULL OR r.plannedEndDate IS NULL))")
@@ -80,4 +130,169 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
             @Param("materialNames") List<String> materialNames,
             @Param("plannedStart") LocalDateTime plannedStart,
             @Param("plannedEnd") LocalDateTime plannedEnd);
+
+    /**
+     * Load requests with their materials in one query (duplicate-detail expansion).
+     */
+    @Query("SELECT DISTINCT r FROM Request r LEFT JOIN FETCH r.materials WHERE r.id IN :ids")
+    List<Request> findWithMaterialsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find duplicate-detection candidates for a whole intake batch in one query.
+     * Returns active requests at any of the given sites that contain at least one
+     * of the given normalized material names, with site and all materials fetched.
+     * Matching request ids come from an index-only scan of (site_id, normalized_name).
+     * The window bounds are a coarse prefilter (earliest start / latest end across
+     * the batch); callers apply the exact per-request window check in memory.
+     */
+    @Query("SELECT DISTINCT r FROM Request r " +
+            "JOIN FETCH r.site " +
+            "LEFT JOIN FETCH r.materials " +
+            "WHERE r.site.id IN :siteIds " +
+            "AND r.status IN ('PENDING', 'SUBMITTED', 'APPROVED', 'PARTIALLY_APPROVED') " +
+            "AND r.id IN (SELECT m.request.id FROM Material m " +
+            "WHERE m.siteId IN :siteIds AND m.normalizedName IN :materialNames) " +
+            "AND ((r.plannedStartDate <= :latestEnd AND r.plannedEndDate >= :earliestStart) " +
+            "OR (r.plannedStartDate IS NULL OR r.plannedEndDate IS NULL))")
+    List<Request> findDuplicateCandidates(
+            @Param("siteIds") Collection<Long> siteIds,
+            @Param("materialNames") Collection<String> materialNames,
+            @Param("earliestStart") LocalDateTime earliestStart,
+            @Param("latestEnd") LocalDateTime latestEnd);
+
+    /**
+     * Page of requests created by a user.
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId " + SUMMARY_FILTERS_AND_KEYSET)
+    List<RequestSummaryDTO> findSummariesByCreatedBy(
+            @Param("userId") Long userId,
+            @Param("status") RequestStatus status,
+            @Param("siteId") Long siteId,
+            @Param("priority") Priority priority,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Page of requests for a project.
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.id = :projectId " + SUMMARY_FILTERS_AND_KEYSET)
+    List<RequestSummaryDTO> findSummariesByProject(
+            @Param("projectId") Long projectId,
+            @Param("status") RequestStatus status,
+            @Param("siteId") Long siteId,
+            @Param("priority") Priority priority,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Page of requests across all projects owned by a user.
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.owner.id = :ownerId " + SUMMARY_FILTERS_AND_KEYSET)
+    List<RequestSummaryDTO> findSummariesByProjectOwner(
+            @Param("ownerId") Long ownerId,
+            @Param("status") RequestStatus status,
+            @Param("siteId") Long siteId,
+            @Param("priority") Priority priority,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Counts are distinct because a flagged request joins its materials with
+     * those of its original.
+     */
+    String VERSION_SELECT = "SELECT COUNT(DISTINCT r.id) AS rowCount, MAX(r.updatedAt) AS lastUpdated, "
+            + "COUNT(DISTINCT m.id) AS childCount, MAX(m.updatedAt) AS childLastUpdated, "
+            + "MAX(p.updatedAt) AS projectLastUpdated, MAX(s.updatedAt) AS siteLastUpdated, "
+            + "MAX(u.updatedAt) AS creatorLastUpdated, "
+            + "COUNT(DISTINCT o.id) AS originalCount, MAX(o.updatedAt) AS originalLastUpdated, "
+            + "COUNT(DISTINCT om.id) AS originalMaterialCount, MAX(om.updatedAt) AS originalMaterialLastUpdated "
+            + "FROM Request r JOIN r.project p JOIN r.site s JOIN r.createdBy u LEFT JOIN r.materials m "
+            + "LEFT JOIN Request o ON o.id = r.duplicateOfRequestId AND r.isDuplicateFlagged = true "
+            + "LEFT JOIN o.materials om ";
+
+    /**
+     * Version of {@link #findByProjectOwnerIdOrderByCreatedAtDesc(Long)}.
+     */
+    @Query(VERSION_SELECT + "WHERE p.owner.id = :ownerId")
+    RequestVersionStamp findVersionByProjectOwner(@Param("ownerId") Long ownerId);
+
+    /**
+     * Version of {@link #findByStatusAndProjectOwnerIdOrderByCreatedAtDesc(RequestStatus, Long)}.
+     */
+    @Query(VERSION_SELECT + "WHERE p.owner.id = :ownerId AND r.status = :status")
+    RequestVersionStamp findVersionByStatusAndProjectOwner(@Param("status") RequestStatus status,
+            @Param("ownerId") Long ownerId);
+
+    /**
+     * Version of {@link #findByCreatedByIdOrderByCreatedAtDesc(Long)}.
+     */
+    @Query(VERSION_SELECT + "WHERE r.createdBy.id = :userId")
+    RequestVersionStamp findVersionByCreatedBy(@Param("userId") Long userId);
+
+    /**
+     * Version of {@link #findByProjectIdOrderByCreatedAtDesc(Long)}.
+     */
+    @Query(VERSION_SELECT + "WHERE p.id = :projectId")
+    RequestVersionStamp findVersionByProject(@Param("projectId") Long projectId);
+
+    /**
+     * Requested, ordered and delivered totals of the given requests, in one
+     * query. Ordered and delivered come from the delivery ledger; requested
+     * is summed from the materials, which can still be edited.
+     */
+    @Query("SELECT r.id AS requestId, r.status AS status, p.id AS projectId, o.id AS ownerId, "
+            + "r.createdBy.id AS createdById, "
+            + "(SELECT COALESCE(SUM(m.quantity), 0) FROM Material m WHERE m.request = r) AS requestedQty, "
+            + "l.orderedQty AS orderedQty, l.deliveredQty AS deliveredQty "
+            + "FROM Request r JOIN RequestDeliveryLedger l ON l.requestId = r.id "
+            + "JOIN r.project p LEFT JOIN p.owner o "
+            + "WHERE r.id IN :requestIds")
+    List<DeliveryProgress> findDeliveryProgressByIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    /**
+     * Move several requests from one status to another in one statement.
+     * Only rows still in the expected status change; a count below the
+     * number of ids means another transaction moved some of them first.
+     * Bypasses {@code @UpdateTimestamp} and {@code @Version}, so updated_at
+     * (it feeds list ETags) and version are set here.
+     * Does not clear the persistence context; callers must not rely on loaded
+     * Request entities afterwards.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Request r SET r.status = :status, r.updatedAt = CURRENT_TIMESTAMP, r.version = r.version + 1 "
+            + "WHERE r.id IN :ids AND r.status = :expectedStatus")
+    int updateStatusByIdInAndStatus(@Param("ids") Collection<Long> ids,
+            @Param("expectedStatus") RequestStatus expectedStatus,
+            @Param("status") RequestStatus status);
+
+    /**
+     * Delivery progress of one request, with the ids of the dashboard scopes
+     * it counts in.
+     */
+    interface DeliveryProgress {
+        Long getRequestId();
+
+        RequestStatus getStatus();
+
+        Long getProjectId();
+
+        Long getOwnerId();
+
+        Long getCreatedById();
+
+        BigDecimal getRequestedQty();
+
+        BigDecimal getOrderedQty();
+
+        BigDecimal getDeliveredQty();
+    }
 }
@@ -0,0 +1,25 @@
+package com.zilla.eproc.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link VersionStamp} of a request list, extended with the rows whose values
+ * are shown with each request: the project, site and creator names, and the
+ * original request and materials behind the duplicate details.
+ */
+public interface RequestVersionStamp extends VersionStamp {
+
+    LocalDateTime getProjectLastUpdated();
+
+    LocalDateTime getSiteLastUpdated();
+
+    LocalDateTime getCreatorLastUpdated();
+
+    Long getOriginalCount();
+
+    LocalDateTime getOriginalLastUpdated();
+
+    Long getOriginalMaterialCount();
+
+    LocalDateTime getOriginalMaterialLastUpdated();
+}
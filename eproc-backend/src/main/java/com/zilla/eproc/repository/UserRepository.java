@@ -3,6 +3,9 @@ package com.zilla.eproc.repository;
 import com.zilla.eproc.model.Role;
 import com.zilla.eproc.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -45,4 +48,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Used by project owners to list their managed users.
      */
     List<User> findByCreatedBy(Long createdBy);
+
+    /**
+     * Replace a user's password hash, only if it is still the expected one.
+     * Used to upgrade hashes on login without overwriting a concurrent
+     * password change.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
 }
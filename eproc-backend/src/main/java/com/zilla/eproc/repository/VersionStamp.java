@@ -0,0 +1,19 @@
+package com.zilla.eproc.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of the rows behind a list endpoint: row count and latest
+ * update of the listed rows and of the child rows shown with them. Any
+ * insert, update or delete in scope changes at least one of the four.
+ */
+public interface VersionStamp {
+
+    Long getRowCount();
+
+    LocalDateTime getLastUpdated();
+
+    Long getChildCount();
+
+    LocalDateTime getChildLastUpdated();
+}
@@ -0,0 +1,174 @@
+package com.zilla.eproc.security;
+
+import com.zilla.eproc.repository.CacheStampRepository;
+import com.zilla.eproc.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the account status of authenticated users by email, so the auth
+ * filter does not look the user up on every request.
+ *
+ * Entries expire after a TTL. Services that change a user's status or
+ * credentials call {@link #evict(String)}; inside a transaction the entry is
+ * evicted again after commit. A lookup that loaded before an eviction does
+ * not cache what it read, so the state from before the change cannot come
+ * back. Evictions also bump an {@link InvalidationStamp}, which clears the
+ * caches of the other nodes within the stamp check interval. Hits, misses
+ * and size are published as Micrometer metrics (see MetricsConfig).
+ */
+@Component
+@Slf4j
+public class ActiveUserCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final InvalidationStamp stamp;
+
+    private final Map<String, CachedUser> users = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ActiveUserCache(
+            UserRepository userRepository,
+            CacheStampRepository cacheStampRepository,
+            @Value("${eproc.auth.user-cache.ttl-ms:60000}") long ttlMillis,
+            @Value("${eproc.auth.user-cache.max-size:10000}") int maxSize,
+            @Value("${eproc.auth.cache-stamp-check-ms:1000}") long stampCheckMillis) {
+        if (ttlMillis < 0 || maxSize < 0 || stampCheckMillis < 0) {
+            throw new IllegalArgumentException(
+                    "eproc.auth.user-cache ttl-ms, max-size and cache-stamp-check-ms must not be negative");
+        }
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.stamp = new InvalidationStamp(cacheStampRepository, "users", stampCheckMillis);
+    }
+
+    /**
+     * The user with this email, loading it if not cached or expired.
+     * Empty if no such user exists.
+     */
+    public Optional<JwtUserDetails> get(String email) {
+        if (ttlMillis > 0 && maxSize > 0 && stamp.changed()) {
+            clear();
+        }
+        long now = System.currentTimeMillis();
+        CachedUser cached = users.get(email);
+        if (cached != null && cached.expiresAt() > now) {
+            hits.increment();
+            return Optional.of(cached.details());
+        }
+        misses.increment();
+
+        long loadedAt = generation.get();
+        Optional<JwtUserDetails> loaded = userRepository.findByEmail(email)
+                .map(user -> new JwtUserDetails(
+                        user.getId(),
+                        user.getEmail(),
+                        user.getRole(),
+                        Boolean.TRUE.equals(user.getActive()),
+                        List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))));
+        if (loaded.isEmpty()) {
+            users.remove(email);
+        } else if (maxSize > 0 && ttlMillis > 0) {
+            if (users.size() >= maxSize) {
+                evictExpired(now);
+            }
+            if (users.size() < maxSize) {
+                users.put(email, new CachedUser(loaded.get(), now + ttlMillis));
+                if (generation.get() != loadedAt) {
+                    // Evicted while loading: what was read may predate the change
+                    users.remove(email);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Forget the cached status of a user, e.g. after deactivation, deletion
+     * or a credential change.
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        stamp.bump();
+        remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(email);
+                }
+            });
+        }
+    }
+
+    private void remove(String email) {
+        generation.incrementAndGet();
+        users.remove(email);
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        users.clear();
+    }
+
+    public int getSize() {
+        return users.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Share of lookups answered from the cache since startup, in [0, 1].
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Scheduled(fixedDelayString = "${eproc.auth.user-cache.stats-log-ms:300000}",
+            initialDelayString = "${eproc.auth.user-cache.stats-log-ms:300000}")
+    void logStats() {
+        log.info("Active user cache: {} entries, {} hits, {} misses, hit rate {}",
+                users.size(), getHitCount(), getMissCount(), String.format("%.3f", getHitRate()));
+    }
+
+    /**
+     * Drop expired entries; if the cache is still full, start over rather
+     * than track recency on every hit.
+     */
+    private void evictExpired(long now) {
+        users.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (users.size() >= maxSize) {
+            users.clear();
+        }
+    }
+
+    private record CachedUser(JwtUserDetails details, long expiresAt) {
+    }
+}
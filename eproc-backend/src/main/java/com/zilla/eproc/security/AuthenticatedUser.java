@@ -0,0 +1,76 @@
+package com.zilla.eproc.security;
+
+import com.zilla.eproc.model.Role;
+import com.zilla.eproc.model.User;
+import com.zilla.eproc.repository.UserRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+/**
+ * The caller of a service method: id, email, system role and active flag.
+ *
+ * JwtAuthenticationFilter resolves the user once per HTTP request and stores
+ * it as the security principal. {@link #resolve(String, UserRepository)}
+ * answers from that principal when the email matches, and only falls back to
+ * a database lookup outside an authenticated request (jobs, unit tests) or
+ * when a service acts on behalf of another user.
+ */
+public final class AuthenticatedUser {
+
+    private final Long id;
+    private final String email;
+    private final Role role;
+    private final boolean active;
+    private final User entity;
+
+    private AuthenticatedUser(Long id, String email, Role role, boolean active, User entity) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.active = active;
+        this.entity = entity;
+    }
+
+    /**
+     * Resolve the user with this email, preferring the principal of the
+     * current request. Empty if no such user exists.
+     */
+    public static Optional<AuthenticatedUser> resolve(String email, UserRepository userRepository) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUserDetails principal
+                && principal.getUserId() != null && principal.getUsername().equals(email)) {
+            return Optional.of(new AuthenticatedUser(principal.getUserId(), principal.getUsername(),
+                    principal.getRole(), principal.isEnabled(), null));
+        }
+        return userRepository.findByEmail(email)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(),
+                        Boolean.TRUE.equals(user.getActive()), user));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * The User entity, for associations such as createdBy. Returns the loaded
+     * entity when there is one, otherwise a lazy reference that costs no
+     * query unless its fields are read.
+     */
+    public User toEntity(UserRepository userRepository) {
+        return entity != null ? entity : userRepository.getReferenceById(id);
+    }
+}
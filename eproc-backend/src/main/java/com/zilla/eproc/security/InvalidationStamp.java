@@ -0,0 +1,57 @@
+package com.zilla.eproc.security;
+
+import com.zilla.eproc.model.CacheStamp;
+import com.zilla.eproc.repository.CacheStampRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared version of a node-local cache, kept in the cache_stamps table.
+ *
+ * A node that invalidates an entry bumps the stamp in the same transaction
+ * as the change. Every lookup asks {@link #changed()}, which reads the stamp
+ * at most once per check interval; when it moved, the cache clears itself.
+ * Invalidations are admin actions and rare, so clearing everything is
+ * cheaper than tracking keys. Changes made on another node thus show up
+ * within the check interval instead of the TTL.
+ */
+public final class InvalidationStamp {
+
+    private final CacheStampRepository repository;
+    private final String name;
+    private final long checkIntervalMillis;
+    private final AtomicLong nextCheckAt = new AtomicLong();
+    private volatile long seenVersion = -1;
+
+    public InvalidationStamp(CacheStampRepository repository, String name, long checkIntervalMillis) {
+        this.repository = repository;
+        this.name = name;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * Announce an invalidation to the other nodes.
+     */
+    public void bump() {
+        if (repository.increment(name) == 0) {
+            // No row yet (schema not from migrations, e.g. tests)
+            repository.save(new CacheStamp(name, 1L));
+        }
+    }
+
+    /**
+     * Whether the stamp moved since it was last read. Only the first caller
+     * after the interval reads it; the others go on with the cache as is.
+     */
+    public boolean changed() {
+        long now = System.currentTimeMillis();
+        long due = nextCheckAt.get();
+        if (now < due || !nextCheckAt.compareAndSet(due, now + checkIntervalMillis)) {
+            return false;
+        }
+        long version = repository.findVersionByName(name).orElse(0L);
+        long previous = seenVersion;
+        seenVersion = version;
+        return previous != version;
+    }
+}
@@ -1,5 +1,6 @@
 package com.zilla.eproc.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,7 +23,7 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final com.zilla.eproc.repository.UserRepository userRepository;
+    private final ActiveUserCache activeUserCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,20 +32,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = parseJwt(request);
 
-        if (token != null && jwtUtil.validateToken(token)) {
-            String email = jwtUtil.getEmailFromToken(token);
+        Claims claims = token != null ? jwtUtil.parseVerifiedClaims(token).orElse(null) : null;
+        if (claims != null) {
+            String email = claims.getSubject();
 
             // Validate user exists and is active
-            userRepository.findByEmail(email).ifPresent(user -> {
-                if (Boolean.TRUE.equals(user.getActive())) {
-                    String role = jwtUtil.getRoleFromToken(token);
+            activeUserCache.get(email).ifPresent(user -> {
+                if (user.isEnabled()) {
+                    String role = claims.get("role", String.class);
 
                     // Create authentication with role authority
                     List<SimpleGrantedAuthority> authorities = List.of(
                             new SimpleGrantedAuthority("ROLE_" + role));
 
-                    // Create UserDetails object for the principal
-                    JwtUserDetails userDetails = new JwtUserDetails(email, authorities);
+                    // Principal carries the resolved user so services need not look it up again
+                    JwtUserDetails userDetails = new JwtUserDetails(user.getUserId(), email, user.getRole(), true,
+                            authorities);
 
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, authorities);
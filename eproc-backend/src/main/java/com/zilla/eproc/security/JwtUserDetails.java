@@ -1,6 +1,6 @@
 package com.zilla.eproc.security;
 
-import lombok.RequiredArgsConstructor;
+import com.zilla.eproc.model.Role;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -8,14 +8,38 @@ import java.util.Collection;
 
 /**
  * Simple UserDetails implementation for JWT authentication.
- * Wraps the email and authorities extracted from JWT token.
+ * Wraps the email and authorities extracted from JWT token, plus the
+ * user id, account role and active flag when loaded from the database.
  */
-@RequiredArgsConstructor
 public class JwtUserDetails implements UserDetails {
 
+    private final Long userId;
     private final String email;
+    private final Role role;
+    private final boolean active;
     private final Collection<? extends GrantedAuthority> authorities;
 
+    public JwtUserDetails(String email, Collection<? extends GrantedAuthority> authorities) {
+        this(null, email, null, true, authorities);
+    }
+
+    public JwtUserDetails(Long userId, String email, Role role, boolean active,
+            Collection<? extends GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.active = active;
+        this.authorities = authorities;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -48,6 +72,6 @@ public class JwtUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return active;
     }
 }
@@ -1,5 +1,6 @@
 package com.zilla.eproc.security;
 
+import com.zilla.eproc.util.TokenHasher;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.Cookie;
@@ -12,9 +13,16 @@ import org.springframework.web.util.WebUtils;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for JWT token generation and validation.
+ *
+ * Tokens are verified with one shared parser. Verified claims are cached by
+ * SHA-256 of the token until the token expires, so repeat requests with the
+ * same token skip the signature check entirely.
  */
 @Component
 public class JwtUtil {
@@ -24,6 +32,10 @@ public class JwtUtil {
     private final long refreshExpiration;
     private final String jwtCookie;
     private final String jwtRefreshCookie;
+    private final JwtParser parser;
+    private final int claimsCacheSize;
+
+    private final Map<String, VerifiedClaims> claimsCache = new ConcurrentHashMap<>();
 
     @org.springframework.beans.factory.annotation.Autowired
     public JwtUtil(
@@ -31,7 +43,11 @@ public class JwtUtil {
             @Value("${jwt.expiration}") long jwtExpiration,
             @Value("${jwt.refresh-expiration}") long refreshExpiration,
             @Value("${jwt.cookie-name}") String jwtCookie,
-            @Value("${jwt.refresh-cookie-name}") String jwtRefreshCookie) {
+            @Value("${jwt.refresh-cookie-name}") String jwtRefreshCookie,
+            @Value("${jwt.claims-cache-size:10000}") int claimsCacheSize) {
+        if (claimsCacheSize < 0) {
+            throw new IllegalArgumentException("jwt.claims-cache-size must not be negative");
+        }
         // Ensure the secret is at least 256 bits (32 bytes) for HS256
         String paddedSecret = secret;
         while (paddedSecret.length() < 32) {
@@ -42,13 +58,15 @@ public class JwtUtil {
         this.refreshExpiration = refreshExpiration;
         this.jwtCookie = jwtCookie;
         this.jwtRefreshCookie = jwtRefreshCookie;
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        this.claimsCacheSize = claimsCacheSize;
     }
 
     /**
      * Legacy constructor for tests.
      */
     public JwtUtil(String secret, long jwtExpiration) {
-        this(secret, jwtExpiration, 86400000L, "eproc-jwt", "eproc-refresh-jwt");
+        this(secret, jwtExpiration, 86400000L, "eproc-jwt", "eproc-refresh-jwt", 10000);
     }
 
     /**
@@ -118,29 +136,67 @@ public class JwtUtil {
     }
 
     /**
-     * Validate a JWT token.
+     * Verify a token once and return its claims, or empty if the token is
+     * malformed, expired or signed with another key.
      */
-    public boolean validateToken(String token) {
+    public Optional<Claims> parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = TokenHasher.sha256Hex(token);
+        long now = System.currentTimeMillis();
+
+        VerifiedClaims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return Optional.of(cached.claims());
+            }
+            claimsCache.remove(key, cached);
+        }
+
+        Claims claims;
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            claims = parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
+        }
+        if (claims.getExpiration() != null && claimsCacheSize > 0) {
+            if (claimsCache.size() >= claimsCacheSize) {
+                evictExpired(now);
+            }
+            if (claimsCache.size() < claimsCacheSize) {
+                claimsCache.put(key, new VerifiedClaims(claims, claims.getExpiration().getTime()));
+            }
         }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Drop expired entries; if the cache is still full, start over rather
+     * than track recency on every hit.
+     */
+    private void evictExpired(long now) {
+        claimsCache.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (claimsCache.size() >= claimsCacheSize) {
+            claimsCache.clear();
+        }
+    }
+
+    private record VerifiedClaims(Claims claims, long expiresAt) {
+    }
+
+    /**
+     * Validate a JWT token.
+     */
+    public boolean validateToken(String token) {
+        return parseVerifiedClaims(token).isPresent();
     }
 
     /**
      * Extract email from token.
      */
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.getSubject();
     }
 
@@ -148,11 +204,7 @@ public class JwtUtil {
      * Extract role from token.
      */
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.get("role", String.class);
     }
 }
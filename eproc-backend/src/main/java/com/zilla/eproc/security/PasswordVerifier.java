@@ -0,0 +1,96 @@
+package com.zilla.eproc.security;
+
+import com.zilla.eproc.model.User;
+import com.zilla.eproc.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks login passwords on a small dedicated pool, so a burst of logins
+ * queues behind the hashing threads instead of tying up request threads.
+ * When the queue is full, {@link java.util.concurrent.RejectedExecutionException}
+ * is thrown to the caller.
+ *
+ * After a successful check, a hash made under an older policy (no encoder
+ * id, or a lower bcrypt strength) is replaced with one under the current
+ * policy.
+ */
+@Component
+@Slf4j
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordVerifier(
+            PasswordEncoder passwordEncoder,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${eproc.auth.password.verify-threads:0}") int threads,
+            @Value("${eproc.auth.password.verify-queue-capacity:200}") int queueCapacity) {
+        if (threads < 0 || queueCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "eproc.auth.password.verify-threads must not be negative and verify-queue-capacity must be >= 1");
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Whether the raw password matches the user's stored hash.
+     */
+    public CompletableFuture<Boolean> verify(User user, String rawPassword) {
+        Long userId = user.getId();
+        String storedHash = user.getPasswordHash();
+        return CompletableFuture.supplyAsync(() -> {
+            if (!passwordEncoder.matches(rawPassword, storedHash)) {
+                return false;
+            }
+            if (passwordEncoder.upgradeEncoding(storedHash)) {
+                rehash(userId, storedHash, rawPassword);
+            }
+            return true;
+        }, executor);
+    }
+
+    private void rehash(Long userId, String storedHash, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            transactionTemplate.executeWithoutResult(
+                    status -> userRepository.updatePasswordHash(userId, storedHash, newHash));
+        } catch (RuntimeException e) {
+            // The old hash still works; try again on the next login
+            log.warn("Could not upgrade password hash for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -4,10 +4,14 @@ import com.zilla.eproc.dto.LoginRequest;
 import com.zilla.eproc.dto.RegisterRequest;
 import com.zilla.eproc.model.User;
 import com.zilla.eproc.repository.UserRepository;
+import com.zilla.eproc.security.ActiveUserCache;
+import com.zilla.eproc.security.PasswordVerifier;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service handling user authentication operations.
  */
@@ -17,6 +21,8 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ActiveUserCache activeUserCache;
+    private final PasswordVerifier passwordVerifier;
 
     /**
      * Register a new user.
@@ -41,24 +47,27 @@ public class AuthService {
     }
 
     /**
-     * Authenticate a user.
+     * Authenticate a user. The password is checked on the password
+     * verification pool; the returned future completes on that pool.
      */
-    public User login(LoginRequest request) {
+    public CompletableFuture<User> login(LoginRequest request) {
         // Find user by email
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
 
-        // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new IllegalArgumentException("Invalid email or password");
-        }
+        return passwordVerifier.verify(user, request.getPassword()).thenApply(matches -> {
+            // Verify password
+            if (!matches) {
+                throw new IllegalArgumentException("Invalid email or password");
+            }
 
-        // Verify active status
-        if (!Boolean.TRUE.equals(user.getActive())) {
-            throw new IllegalArgumentException("User account is inactive");
-        }
+            // Verify active status
+            if (!Boolean.TRUE.equals(user.getActive())) {
+                throw new IllegalArgumentException("User account is inactive");
+            }
 
-        return user;
+            return user;
+        });
     }
 
     /**
@@ -77,5 +86,6 @@ public class AuthService {
         user.setPasswordHash(passwordEncoder.encode(newPassword));
         user.setRequirePasswordChange(false);
         userRepository.save(user);
+        activeUserCache.evict(userEmail);
     }
 }
@@ -0,0 +1,222 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.model.CounterScope;
+import com.zilla.eproc.model.DashboardCounter;
+import com.zilla.eproc.model.Request;
+import com.zilla.eproc.model.RequestStatus;
+import com.zilla.eproc.repository.DashboardCounterRepository;
+import com.zilla.eproc.repository.DashboardStatsRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Maintains the materialized request counters in dashboard_counters.
+ *
+ * Every request creation and status transition adjusts the counters of the
+ * request's project, project owner and creator in the caller's transaction,
+ * so counters commit or roll back together with the status change. Deltas
+ * are applied in a fixed key order to avoid lock-order deadlocks between
+ * concurrent transitions.
+ *
+ * Changes that bypass the status transitions (cascading deletes, project
+ * ownership transfer) are repaired by the scheduled reconciliation.
+ */
+@Service
+@Slf4j
+public class DashboardCounterService {
+
+    private static final Comparator<DashboardCounter.Key> KEY_ORDER = Comparator
+            .comparing(DashboardCounter.Key::getScopeType)
+            .thenComparing(DashboardCounter.Key::getScopeId)
+            .thenComparing(DashboardCounter.Key::getStatus);
+
+    private final DashboardCounterRepository dashboardCounterRepository;
+    private final DashboardStatsRepository dashboardStatsRepository;
+    private final TransactionTemplate requiresNewTransaction;
+    private final TransactionTemplate snapshotTransaction;
+
+    public DashboardCounterService(
+            DashboardCounterRepository dashboardCounterRepository,
+            DashboardStatsRepository dashboardStatsRepository,
+            PlatformTransactionManager transactionManager) {
+        this.dashboardCounterRepository = dashboardCounterRepository;
+        this.dashboardStatsRepository = dashboardStatsRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Count newly created requests under their initial status.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Request> requests) {
+        Map<DashboardCounter.Key, Long> deltas = new TreeMap<>(KEY_ORDER);
+        for (Request request : requests) {
+            addDeltas(deltas, request, request.getStatus(), 1);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Move a request from one status counter to another.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Request request, RequestStatus from, RequestStatus to) {
+        if (from == to) {
+            return;
+        }
+        Map<DashboardCounter.Key, Long> deltas = new TreeMap<>(KEY_ORDER);
+        addDeltas(deltas, request, from, -1);
+        addDeltas(deltas, request, to, 1);
+        apply(deltas);
+    }
+
+    /**
+     * Move several requests between status counters at once. Deltas are
+     * summed per counter first, so each affected counter is adjusted once
+     * however many requests moved.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransitions(Collection<Transition> transitions) {
+        Map<DashboardCounter.Key, Long> deltas = new TreeMap<>(KEY_ORDER);
+        for (Transition transition : transitions) {
+            if (transition.from() == transition.to()) {
+                continue;
+            }
+            addDeltas(deltas, transition.projectId(), transition.ownerId(), transition.creatorId(),
+                    transition.from(), -1);
+            addDeltas(deltas, transition.projectId(), transition.ownerId(), transition.creatorId(),
+                    transition.to(), 1);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Request counts by status for one scope.
+     */
+    @Transactional(readOnly = true)
+    public Map<RequestStatus, Long> getCounts(CounterScope scopeType, Long scopeId) {
+        Map<RequestStatus, Long> counts = new EnumMap<>(RequestStatus.class);
+        dashboardCounterRepository.findByScope(scopeType, scopeId)
+                .forEach(counter -> counts.put(counter.getId().getStatus(), counter.getRequestCount()));
+        return counts;
+    }
+
+    /**
+     * Recount every scope from the requests table and correct counters that
+     * drifted. Expected and stored counts are read from one snapshot; the
+     * corrections are applied as deltas, so transitions committed meanwhile
+     * are not overwritten.
+     */
+    @Scheduled(cron = "${eproc.dashboard-counters.reconcile-cron:0 30 2 * * *}")
+    public ReconciliationReport reconcile() {
+        Map<DashboardCounter.Key, Long> stored = new HashMap<>();
+        Map<DashboardCounter.Key, Long> drift = snapshotTransaction.execute(status -> {
+            Map<DashboardCounter.Key, Long> expected = new HashMap<>();
+            collect(expected, CounterScope.PROJECT, dashboardStatsRepository.countRequestsByProjectAndStatus());
+            collect(expected, CounterScope.OWNER, dashboardStatsRepository.countRequestsByOwnerAndStatus());
+            collect(expected, CounterScope.CREATOR, dashboardStatsRepository.countRequestsByCreatorAndStatus());
+            dashboardCounterRepository.findAll()
+                    .forEach(counter -> stored.put(counter.getId(), counter.getRequestCount()));
+
+            Map<DashboardCounter.Key, Long> deltas = new TreeMap<>(KEY_ORDER);
+            Set<DashboardCounter.Key> keys = new HashSet<>(expected.keySet());
+            keys.addAll(stored.keySet());
+            for (DashboardCounter.Key key : keys) {
+                long delta = expected.getOrDefault(key, 0L) - stored.getOrDefault(key, 0L);
+                if (delta != 0) {
+                    deltas.put(key, delta);
+                }
+            }
+            return deltas;
+        });
+
+        if (!drift.isEmpty()) {
+            requiresNewTransaction.executeWithoutResult(status -> apply(drift));
+            drift.forEach((key, delta) -> log.warn("Dashboard counter {}/{}/{} drifted by {}",
+                    key.getScopeType(), key.getScopeId(), key.getStatus(), -delta));
+        }
+
+        long totalDrift = drift.values().stream().mapToLong(Math::abs).sum();
+        log.info("Dashboard counter reconciliation: {} counters checked, {} corrected, total drift {}",
+                stored.size(), drift.size(), totalDrift);
+        return new ReconciliationReport(stored.size(), drift.size(), totalDrift);
+    }
+
+    private void addDeltas(Map<DashboardCounter.Key, Long> deltas, Request request, RequestStatus status,
+            long delta) {
+        Long ownerId = request.getProject().getOwner() != null ? request.getProject().getOwner().getId() : null;
+        addDeltas(deltas, request.getProject().getId(), ownerId, request.getCreatedBy().getId(), status, delta);
+    }
+
+    private void addDeltas(Map<DashboardCounter.Key, Long> deltas, Long projectId, Long ownerId, Long creatorId,
+            RequestStatus status, long delta) {
+        if (status == null) {
+            return;
+        }
+        deltas.merge(new DashboardCounter.Key(CounterScope.PROJECT, projectId, status), delta, Long::sum);
+        if (ownerId != null) {
+            deltas.merge(new DashboardCounter.Key(CounterScope.OWNER, ownerId, status), delta, Long::sum);
+        }
+        deltas.merge(new DashboardCounter.Key(CounterScope.CREATOR, creatorId, status), delta, Long::sum);
+    }
+
+    private void collect(Map<DashboardCounter.Key, Long> target, CounterScope scopeType,
+            List<DashboardStatsRepository.ScopedStatusCount> rows) {
+        rows.forEach(row -> target.put(new DashboardCounter.Key(scopeType, row.getScopeId(), row.getStatus()),
+                row.getCount()));
+    }
+
+    private void apply(Map<DashboardCounter.Key, Long> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            if (dashboardCounterRepository.adjust(key, delta) == 0) {
+                createCounter(key);
+                dashboardCounterRepository.adjust(key, delta);
+            }
+        });
+    }
+
+    /**
+     * Insert a zero counter in the caller's transaction. If another
+     * transaction is inserting the same key, this waits for it rather than
+     * failing.
+     */
+    private void createCounter(DashboardCounter.Key key) {
+        dashboardCounterRepository.createIfAbsent(key.getScopeType().name(), key.getScopeId(),
+                key.getStatus().name());
+    }
+
+    /**
+     * A status change of one request, identified by the scopes it counts in.
+     */
+    public record Transition(Long projectId, Long ownerId, Long creatorId, RequestStatus from, RequestStatus to) {
+    }
+
+    /**
+     * Outcome of a reconciliation run.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ReconciliationReport {
+        private int countersChecked;
+        private int countersCorrected;
+        private long totalDrift;
+    }
+}
@@ -5,26 +5,32 @@ import com.zilla.eproc.dto.ManagerDashboardDTO;
 import com.zilla.eproc.exception.ResourceNotFoundException;
 import com.zilla.eproc.model.*;
 import com.zilla.eproc.repository.*;
+import com.zilla.eproc.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for dashboard statistics.
  * Updated for Role Model Overhaul: boss → owner, uses ProjectAssignment for
  * engineer access.
  * Updated for Request/Material architecture: MaterialRequest → Request.
+ * Request counts are read from materialized counters (DashboardCounterService);
+ * project and team counters come from grouped aggregate queries
+ * (DashboardStatsRepository) rather than loading entities.
  */
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
         private final UserRepository userRepository;
-        private final ProjectRepository projectRepository;
-        private final RequestRepository requestRepository;
         private final ProjectAssignmentRepository projectAssignmentRepository;
+        private final DashboardStatsRepository dashboardStatsRepository;
+        private final DashboardCounterService dashboardCounterService;
 
         /**
          * Get dashboard statistics for an engineer.
@@ -32,7 +38,7 @@ public class DashboardService {
          */
         @Transactional(readOnly = true)
         public EngineerDashboardDTO getEngineerDashboard(String email) {
-                User engineer = userRepository.findByEmail(email)
+                AuthenticatedUser engineer = AuthenticatedUser.resolve(email, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 // Find engineer's active project assignments
@@ -56,22 +62,15 @@ public class DashboardService {
                         }
                 }
 
-                // Get request statistics
-                List<Request> myRequests = requestRepository
-                                .findByCreatedById(engineer.getId());
-
-                int pending = (int) myRequests.stream()
-                                .filter(r -> r.getStatus() == RequestStatus.PENDING).count();
-                int approved = (int) myRequests.stream()
-                                .filter(r -> r.getStatus() == RequestStatus.APPROVED).count();
-                int rejected = (int) myRequests.stream()
-                                .filter(r -> r.getStatus() == RequestStatus.REJECTED).count();
+                // Get request statistics (materialized counters)
+                Map<RequestStatus, Long> byStatus = dashboardCounterService.getCounts(
+                                CounterScope.CREATOR, engineer.getId());
 
                 return builder
-                                .pendingRequests(pending)
-                                .approvedRequests(approved)
-                                .rejectedRequests(rejected)
-                                .totalRequests(myRequests.size())
+                                .pendingRequests(byStatus.getOrDefault(RequestStatus.PENDING, 0L).intValue())
+                                .approvedRequests(byStatus.getOrDefault(RequestStatus.APPROVED, 0L).intValue())
+                                .rejectedRequests(byStatus.getOrDefault(RequestStatus.REJECTED, 0L).intValue())
+                                .totalRequests((int) byStatus.values().stream().mapToLong(Long::longValue).sum())
                                 .build();
         }
 
@@ -80,55 +79,33 @@ public class DashboardService {
          */
         @Transactional(readOnly = true)
         public ManagerDashboardDTO getManagerDashboard(String email) {
-                User owner = userRepository.findByEmail(email)
+                AuthenticatedUser owner = AuthenticatedUser.resolve(email, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-                // Get projects owned by this user
-                List<Project> myProjects = projectRepository.findByOwnerId(owner.getId());
-
-                int activeProjects = (int) myProjects.stream()
-                                .filter(p -> p.getStatus() == ProjectStatus.ACTIVE).count();
-                int completedProjects = (int) myProjects.stream()
-                                .filter(p -> p.getStatus() == ProjectStatus.COMPLETED).count();
-
-                // Get team members assigned to my active projects (via ProjectAssignment)
-                int assignedTeamMembers = 0;
-                for (Project p : myProjects) {
-                        if (p.getStatus() == ProjectStatus.ACTIVE && p.getTeamAssignments() != null) {
-                                assignedTeamMembers += (int) p.getTeamAssignments().stream()
-                                                .filter(pa -> Boolean.TRUE.equals(pa.getIsActive())
-                                                                && pa.getRole() != ProjectRole.PROJECT_OWNER)
-                                                .count();
-                        }
-                }
-
-                // Get available engineers (by system role)
-                List<User> availableEngineers = userRepository.findByRoleAndActiveTrue(Role.ENGINEER);
+                // Project counters by status
+                Map<ProjectStatus, Long> projectsByStatus = new EnumMap<>(ProjectStatus.class);
+                dashboardStatsRepository.countProjectsByStatusForOwner(owner.getId())
+                                .forEach(row -> projectsByStatus.put(row.getStatus(), row.getCount()));
 
-                // Get pending requests from my projects
-                List<Request> pendingFromMyProjects = requestRepository.findByProjectIdIn(
-                                myProjects.stream().map(Project::getId).toList()).stream()
-                                .filter(r -> r.getStatus() == RequestStatus.PENDING)
-                                .toList();
+                // Request counters by status across my projects
+                Map<RequestStatus, Long> requestsByStatus = dashboardCounterService.getCounts(
+                                CounterScope.OWNER, owner.getId());
 
-                // Get all requests from my projects for stats
-                List<Request> allFromMyProjects = requestRepository.findByProjectIdIn(
-                                myProjects.stream().map(Project::getId).toList());
+                // Team members assigned to my active projects (via ProjectAssignment)
+                long assignedTeamMembers = dashboardStatsRepository.countActiveTeamAssignmentsForOwner(owner.getId());
 
-                int approved = (int) allFromMyProjects.stream()
-                                .filter(r -> r.getStatus() == RequestStatus.APPROVED).count();
-                int rejected = (int) allFromMyProjects.stream()
-                                .filter(r -> r.getStatus() == RequestStatus.REJECTED).count();
+                // Available engineers (by system role)
+                long availableEngineers = dashboardStatsRepository.countActiveUsersByRole(Role.ENGINEER);
 
                 return ManagerDashboardDTO.builder()
-                                .activeProjects(activeProjects)
-                                .completedProjects(completedProjects)
-                                .totalProjects(myProjects.size())
-                                .pendingRequests(pendingFromMyProjects.size())
-                                .approvedRequests(approved)
-                                .rejectedRequests(rejected)
-                                .assignedEngineers(assignedTeamMembers) // Now counts all team assignments
-                                .availableEngineers(availableEngineers.size())
+                                .activeProjects(projectsByStatus.getOrDefault(ProjectStatus.ACTIVE, 0L).intValue())
+                                .completedProjects(projectsByStatus.getOrDefault(ProjectStatus.COMPLETED, 0L).intValue())
+                                .totalProjects((int) projectsByStatus.values().stream().mapToLong(Long::longValue).sum())
+                                .pendingRequests(requestsByStatus.getOrDefault(RequestStatus.PENDING, 0L).intValue())
+                                .approvedRequests(requestsByStatus.getOrDefault(RequestStatus.APPROVED, 0L).intValue())
+                                .rejectedRequests(requestsByStatus.getOrDefault(RequestStatus.REJECTED, 0L).intValue())
+                                .assignedEngineers((int) assignedTeamMembers) // Counts all team assignments
+                                .availableEngineers((int) availableEngineers)
                                 .build();
         }
 }
@@ -5,14 +5,24 @@ import com.zilla.eproc.dto.DeliveryResponseDTO;
 import com.zilla.eproc.exception.ResourceNotFoundException;
 import com.zilla.eproc.model.*;
 import com.zilla.eproc.repository.*;
+import com.zilla.eproc.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -26,53 +36,69 @@ import java.util.stream.Collectors;
 public class DeliveryService extends BaseProjectService {
 
         private final DeliveryRepository deliveryRepository;
-        private final DeliveryItemRepository deliveryItemRepository;
         private final PurchaseOrderRepository purchaseOrderRepository;
         private final PurchaseOrderItemRepository purchaseOrderItemRepository;
         private final RequestRepository requestRepository;
+        private final RequestDeliveryLedgerRepository requestDeliveryLedgerRepository;
         private final UserRepository userRepository;
+        private final DashboardCounterService dashboardCounterService;
+        private final OptimisticLockRetry optimisticLockRetry;
+        private final EntityManager entityManager;
         // private final MaterialRepository materialRepository; // Reserved for future
         // use
 
         /**
          * Record a new delivery.
          * Only Engineers can verify deliveries (enforced by checkAccess).
+         * Concurrent deliveries against the same PO conflict on its version;
+         * the loser is retried from fresh reads (see OptimisticLockRetry).
          */
-        @Transactional
         public DeliveryResponseDTO recordDelivery(CreateDeliveryDTO dto, String userEmail) {
+                return optimisticLockRetry.execute(() -> applyDelivery(dto, userEmail));
+        }
+
+        private DeliveryResponseDTO applyDelivery(CreateDeliveryDTO dto, String userEmail) {
                 log.info("Recording delivery for PO {} by user {}", dto.getPurchaseOrderId(), userEmail);
 
-                // Get purchase order first to get Project ID
-                PurchaseOrder po = purchaseOrderRepository.findById(dto.getPurchaseOrderId())
+                // Get purchase order first to get Project ID; its items are needed below
+                PurchaseOrder po = purchaseOrderRepository.findWithItemsById(dto.getPurchaseOrderId())
                                 .orElseThrow(() -> new ResourceNotFoundException("Purchase order not found"));
+                // Bump only the PO's version at commit (not its items'), so concurrent deliveries
+                // against it conflict and the closing check always sees every delivered item
+                entityManager.lock(po, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
 
                 // Validate Access - Enforce ENGINEER role (or Owner override)
                 checkAccess(userEmail, po.getProject().getId(), ProjectRole.PROJECT_SITE_ENGINEER,
                                 ProjectRole.PROJECT_LEAD_ENGINEER,
                                 ProjectRole.PROJECT_CONSULTANT_ENGINEER);
 
-                // Get user (still need user entity for 'receivedBy')
-                User receiver = userRepository.findByEmail(userEmail)
+                // Resolved once per HTTP request; only a reference is needed for 'receivedBy'
+                AuthenticatedUser receiver = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 // Create delivery
                 Delivery delivery = Delivery.builder()
                                 .purchaseOrder(po)
-                                .receivedBy(receiver)
+                                .receivedBy(receiver.toEntity(userRepository))
                                 .deliveredDate(dto.getDeliveredDate() != null ? dto.getDeliveredDate()
                                                 : LocalDateTime.now())
                                 .notes(dto.getNotes())
                                 .build();
 
+                Map<Long, PurchaseOrderItem> poItems = po.getItems().stream()
+                                .collect(Collectors.toMap(PurchaseOrderItem::getId, Function.identity()));
+
+                Map<Long, BigDecimal> deliveredByRequest = new HashMap<>();
+
                 // Create delivery items
                 for (CreateDeliveryDTO.DeliveryItemDTO itemDto : dto.getItems()) {
-                        PurchaseOrderItem poItem = purchaseOrderItemRepository
-                                        .findById(itemDto.getPurchaseOrderItemId())
-                                        .orElseThrow(() -> new ResourceNotFoundException(
-                                                        "Purchase order item not found"));
+                        PurchaseOrderItem poItem = poItems.get(itemDto.getPurchaseOrderItemId());
 
                         // Validate poItem belongs to this PO
-                        if (!poItem.getPurchaseOrder().getId().equals(po.getId())) {
+                        if (poItem == null) {
+                                if (!purchaseOrderItemRepository.existsById(itemDto.getPurchaseOrderItemId())) {
+                                        throw new ResourceNotFoundException("Purchase order item not found");
+                                }
                                 throw new IllegalStateException("PO item does not belong to this purchase order");
                         }
 
@@ -86,91 +112,131 @@ public class DeliveryService extends BaseProjectService {
                                         .build();
 
                         delivery.getItems().add(deliveryItem);
+
+                        // Running totals; the PO item's version guards against concurrent deliveries
+                        poItem.recordDelivered(itemDto.getQuantityDelivered());
+                        deliveredByRequest.merge(poItem.getRequest().getId(), itemDto.getQuantityDelivered(),
+                                        BigDecimal::add);
                 }
 
                 // Save delivery
                 delivery = deliveryRepository.save(delivery);
 
-                // Update request statuses for all affected requests
-                updateRequestStatuses(po);
+                recordDeliveredOnLedgers(deliveredByRequest);
 
                 // Check if PO is fully delivered
                 updatePurchaseOrderStatus(po);
 
+                // Update request statuses for all affected requests
+                updateRequestStatuses(deliveredByRequest.keySet());
+
                 log.info("Recorded delivery {} with {} items", delivery.getId(), delivery.getItems().size());
 
                 return mapToResponseDTO(delivery);
         }
 
         /**
-         * Update request statuses based on delivery progress.
-         * 
-         * Status logic:
-         * - ORDERED: delivered == 0 && ordered > 0
-         * - PARTIALLY_DELIVERED: (delivered > 0 && delivered < ordered) OR (delivered
-         * >= ordered && ordered < requested)
-         * - DELIVERED: delivered >= ordered && ordered >= requested
+         * Add delivered quantities to the requests' ledgers, loaded in one
+         * query. Their versions guard against concurrent deliveries.
          */
-        private void updateRequestStatuses(PurchaseOrder po) {
-                // Get all unique requests from this PO
-                List<Request> requests = po.getItems().stream()
-                                .map(PurchaseOrderItem::getRequest)
-                                .distinct()
-                                .collect(Collectors.toList());
-
-                for (Request request : requests) {
-                        updateRequestStatus(request);
-                }
+        private void recordDeliveredOnLedgers(Map<Long, BigDecimal> deliveredByRequest) {
+                Map<Long, RequestDeliveryLedger> ledgers = requestDeliveryLedgerRepository
+                                .findAllById(deliveredByRequest.keySet()).stream()
+                                .collect(Collectors.toMap(RequestDeliveryLedger::getRequestId, Function.identity()));
+
+                deliveredByRequest.forEach((requestId, quantity) -> {
+                        RequestDeliveryLedger ledger = ledgers.get(requestId);
+                        if (ledger == null) {
+                                throw new IllegalStateException("No delivery ledger for request " + requestId);
+                        }
+                        ledger.recordDelivered(quantity);
+                });
         }
 
         /**
-         * Update a single request's status based on ordered and delivered quantities.
+         * Update the statuses of the delivered requests from their delivery
+         * progress. Totals for every request come from one query and changed
+         * statuses are written with one bulk update per (old, new) status
+         * pair, so the cost does not grow with the number of requests on the
+         * PO. Requests without deliveries here keep their totals and so their
+         * status. A request whose status changed since it was read conflicts,
+         * and the delivery is retried from fresh reads.
          */
-        private void updateRequestStatus(Request request) {
-                // Calculate requested quantity (sum of all material quantities in request)
-                BigDecimal requestedQty = request.getMaterials().stream()
-                                .map(Material::getQuantity)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                // Calculate total ordered quantity for this request
-                BigDecimal orderedQty = purchaseOrderItemRepository.sumOrderedQtyByRequestId(request.getId());
-
-                // Calculate total delivered quantity for this request
-                BigDecimal deliveredQty = deliveryItemRepository.sumDeliveredQtyByRequestId(request.getId());
+        private void updateRequestStatuses(Collection<Long> requestIds) {
+                Map<RequestStatus, Map<RequestStatus, List<Long>>> idsByTransition = new EnumMap<>(
+                                RequestStatus.class);
+                List<DashboardCounterService.Transition> transitions = new ArrayList<>();
+
+                for (RequestRepository.DeliveryProgress progress : requestRepository
+                                .findDeliveryProgressByIdIn(requestIds)) {
+                        log.debug("Request {}: Requested={}, Ordered={}, Delivered={}",
+                                        progress.getRequestId(), progress.getRequestedQty(),
+                                        progress.getOrderedQty(), progress.getDeliveredQty());
+
+                        RequestStatus newStatus = deliveryStatus(progress.getRequestedQty(), progress.getOrderedQty(),
+                                        progress.getDeliveredQty(), progress.getStatus());
+
+                        if (newStatus == RequestStatus.PARTIALLY_DELIVERED
+                                        && progress.getDeliveredQty().compareTo(progress.getOrderedQty()) >= 0) {
+                                log.warn("Request {} under-ordered: Requested={}, Ordered={}",
+                                                progress.getRequestId(), progress.getRequestedQty(),
+                                                progress.getOrderedQty());
+                        }
 
-                log.debug("Request {}: Requested={}, Ordered={}, Delivered={}",
-                                request.getId(), requestedQty, orderedQty, deliveredQty);
+                        if (progress.getStatus() != newStatus) {
+                                log.info("Updating request {} status from {} to {}",
+                                                progress.getRequestId(), progress.getStatus(), newStatus);
+                                idsByTransition.computeIfAbsent(progress.getStatus(),
+                                                status -> new EnumMap<>(RequestStatus.class))
+                                                .computeIfAbsent(newStatus, status -> new ArrayList<>())
+                                                .add(progress.getRequestId());
+                                transitions.add(new DashboardCounterService.Transition(progress.getProjectId(),
+                                                progress.getOwnerId(), progress.getCreatedById(),
+                                                progress.getStatus(), newStatus));
+                        }
+                }
 
-                RequestStatus newStatus;
+                idsByTransition.forEach((from, idsByNewStatus) -> idsByNewStatus.forEach((to, ids) -> {
+                        if (requestRepository.updateStatusByIdInAndStatus(ids, from, to) != ids.size()) {
+                                throw new OptimisticLockingFailureException(
+                                                "Requests changed status while recording a delivery: " + ids);
+                        }
+                }));
+                if (!transitions.isEmpty()) {
+                        dashboardCounterService.recordTransitions(transitions);
+                }
+        }
 
+        /**
+         * Request status for the given quantities.
+         *
+         * Status logic:
+         * - ORDERED: delivered == 0 && ordered > 0
+         * - PARTIALLY_DELIVERED: (delivered > 0 && delivered < ordered) OR (delivered
+         * >= ordered && ordered < requested)
+         * - DELIVERED: delivered >= ordered && ordered >= requested
+         * Otherwise the current status is kept.
+         */
+        static RequestStatus deliveryStatus(BigDecimal requestedQty, BigDecimal orderedQty,
+                        BigDecimal deliveredQty, RequestStatus currentStatus) {
                 if (deliveredQty.compareTo(BigDecimal.ZERO) == 0 && orderedQty.compareTo(BigDecimal.ZERO) > 0) {
                         // No deliveries yet, but order placed
-                        newStatus = RequestStatus.ORDERED;
+                        return RequestStatus.ORDERED;
                 } else if (deliveredQty.compareTo(BigDecimal.ZERO) > 0
                                 && deliveredQty.compareTo(orderedQty) < 0) {
                         // Some delivered, but less than ordered
-                        newStatus = RequestStatus.PARTIALLY_DELIVERED;
+                        return RequestStatus.PARTIALLY_DELIVERED;
                 } else if (deliveredQty.compareTo(orderedQty) >= 0
                                 && orderedQty.compareTo(requestedQty) < 0) {
                         // Delivered all that was ordered, but under-ordered (ordered < requested)
-                        newStatus = RequestStatus.PARTIALLY_DELIVERED;
-                        log.warn("Request {} under-ordered: Requested={}, Ordered={}",
-                                        request.getId(), requestedQty, orderedQty);
+                        return RequestStatus.PARTIALLY_DELIVERED;
                 } else if (deliveredQty.compareTo(orderedQty) >= 0
                                 && orderedQty.compareTo(requestedQty) >= 0) {
                         // Fully delivered: delivered >= ordered >= requested
-                        newStatus = RequestStatus.DELIVERED;
-                } else {
-                        // Default to current status if logic doesn't match
-                        newStatus = request.getStatus();
-                }
-
-                if (request.getStatus() != newStatus) {
-                        log.info("Updating request {} status from {} to {}",
-                                        request.getId(), request.getStatus(), newStatus);
-                        request.setStatus(newStatus);
-                        requestRepository.save(request);
+                        return RequestStatus.DELIVERED;
                 }
+                // Default to current status if logic doesn't match
+                return currentStatus;
         }
 
         /**
@@ -4,6 +4,9 @@ import com.zilla.eproc.dto.DuplicateWarningDTO;
 import com.zilla.eproc.model.Material;
 import com.zilla.eproc.model.Request;
 import com.zilla.eproc.repository.RequestRepository;
+import com.zilla.eproc.util.MaterialNameNormalizer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,7 +14,11 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -23,11 +30,13 @@ import java.util.stream.Collectors;
 public class DuplicateDetectionService {
 
     private final RequestRepository requestRepository;
+    private final MaterialNameIndex materialNameIndex;
 
     /**
      * Check for duplicate requests based on:
      * - Same site
-     * - Same material names (case-insensitive match)
+     * - Same or similar normalized material names (case, punctuation and units
+     * ignored; similarity from MaterialNameIndex)
      * - Overlapping timeline (plannedStartDate/plannedEndDate)
      *
      * @param siteId        Site ID
@@ -49,11 +58,9 @@ public class DuplicateDetectionService {
             return new ArrayList<>();
         }
 
-        // Normalize material names to lowercase for case-insensitive comparison
-        List<String> normalizedNames = materialNames.stream()
-                .map(String::toLowerCase)
-                .distinct()
-                .collect(Collectors.toList());
+        // Normalize material names the same way they are stored, then add
+        // similar names in use at the site
+        List<String> normalizedNames = expandSimilarNames(siteId, materialNames);
 
         // Find overlapping requests
         List<Request> overlappingRequests = requestRepository.findOverlappingRequests(
@@ -70,10 +77,98 @@ public class DuplicateDetectionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Run duplicate detection for a whole intake batch with a single query.
+     * Candidates for every check are loaded at once and matched in memory
+     * using the same rules as {@link #findPotentialDuplicates}.
+     *
+     * @param checks One entry per request being created
+     * @return Duplicate warnings for each check, in the same order
+     */
+    public List<List<DuplicateWarningDTO>> findPotentialDuplicatesForBatch(List<DuplicateCheck> checks) {
+        Set<Long> siteIds = new HashSet<>();
+        Set<String> allNames = new HashSet<>();
+        LocalDateTime earliestStart = null;
+        LocalDateTime latestEnd = null;
+
+        for (DuplicateCheck check : checks) {
+            if (check.getMaterialNames() == null || check.getMaterialNames().isEmpty()) {
+                continue;
+            }
+            siteIds.add(check.getSiteId());
+            allNames.addAll(expandSimilarNames(check.getSiteId(), check.getMaterialNames()));
+            if (check.getPlannedStart() != null && check.getPlannedEnd() != null) {
+                earliestStart = earliestStart == null || check.getPlannedStart().isBefore(earliestStart)
+                        ? check.getPlannedStart()
+                        : earliestStart;
+                latestEnd = latestEnd == null || check.getPlannedEnd().isAfter(latestEnd)
+                        ? check.getPlannedEnd()
+                        : latestEnd;
+            }
+        }
+
+        List<Request> candidates = siteIds.isEmpty()
+                ? List.of()
+                : requestRepository.findDuplicateCandidates(siteIds, allNames, earliestStart, latestEnd);
+
+        log.info("Checking {} requests for duplicates against {} candidates", checks.size(), candidates.size());
+
+        Map<Long, List<Request>> candidatesBySite = candidates.stream()
+                .collect(Collectors.groupingBy(r -> r.getSite().getId()));
+
+        List<List<DuplicateWarningDTO>> results = new ArrayList<>(checks.size());
+        for (DuplicateCheck check : checks) {
+            if (check.getMaterialNames() == null || check.getMaterialNames().isEmpty()) {
+                results.add(new ArrayList<>());
+                continue;
+            }
+
+            List<String> normalizedNames = expandSimilarNames(check.getSiteId(), check.getMaterialNames());
+
+            results.add(candidatesBySite.getOrDefault(check.getSiteId(), List.of()).stream()
+                    .filter(r -> isWithinWindow(r, check.getPlannedStart(), check.getPlannedEnd()))
+                    .filter(r -> r.getMaterials().stream()
+                            .anyMatch(m -> normalizedNames.contains(normalizedNameOf(m))))
+                    .map(r -> mapToDuplicateWarning(r, normalizedNames, check.getPlannedStart(),
+                            check.getPlannedEnd()))
+                    .collect(Collectors.toList()));
+        }
+        return results;
+    }
+
+    /**
+     * Normalized requested names plus the similar names in use at the site.
+     */
+    private List<String> expandSimilarNames(Long siteId, List<String> materialNames) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String materialName : materialNames) {
+            String normalized = MaterialNameNormalizer.normalize(materialName);
+            names.add(normalized);
+            names.addAll(materialNameIndex.findSimilar(siteId, normalized));
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * In-memory equivalent of the timeline predicate in
+     * RequestRepository.findOverlappingRequests: requests without dates always
+     * match, dated requests match when the windows intersect.
+     */
+    private boolean isWithinWindow(Request request, LocalDateTime plannedStart, LocalDateTime plannedEnd) {
+        if (request.getPlannedStartDate() == null || request.getPlannedEndDate() == null) {
+            return true;
+        }
+        if (plannedStart == null || plannedEnd == null) {
+            return false;
+        }
+        return !request.getPlannedStartDate().isAfter(plannedEnd)
+                && !request.getPlannedEndDate().isBefore(plannedStart);
+    }
+
     /**
      * Map Request to DuplicateWarningDTO with overlap information.
      */
-    private DuplicateWarningDTO mapToDuplicateWarning(
+    DuplicateWarningDTO mapToDuplicateWarning(
             Request request,
             List<String> requestedMaterials,
             LocalDateTime newStart,
@@ -81,8 +176,8 @@ public class DuplicateDetectionService {
 
         // Find overlapping materials
         List<String> overlappingMaterials = request.getMaterials().stream()
+                .filter(m -> requestedMaterials.contains(normalizedNameOf(m)))
                 .map(Material::getName)
-                .filter(name -> requestedMaterials.contains(name.toLowerCase()))
                 .collect(Collectors.toList());
 
         // Calculate timeline overlap percentage
@@ -105,12 +200,21 @@ public class DuplicateDetectionService {
                 .build();
     }
 
+    /**
+     * Stored normalized name, derived from the name for materials not yet persisted.
+     */
+    private String normalizedNameOf(Material material) {
+        return material.getNormalizedName() != null
+                ? material.getNormalizedName()
+                : MaterialNameNormalizer.normalize(material.getName());
+    }
+
     /**
      * Calculate the percentage of timeline overlap between two periods.
      *
      * @return Percentage of overlap (0-100)
      */
-    private Double calculateTimelineOverlap(
+    Double calculateTimelineOverlap(
             LocalDateTime start1, LocalDateTime end1,
             LocalDateTime start2, LocalDateTime end2) {
 
@@ -141,4 +245,17 @@ public class DuplicateDetectionService {
         // Return percentage
         return (double) overlapDays / totalDays * 100.0;
     }
+
+    /**
+     * Input for batch duplicate detection: the site, material names and
+     * planned window of one request being created.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class DuplicateCheck {
+        private Long siteId;
+        private List<String> materialNames;
+        private LocalDateTime plannedStart;
+        private LocalDateTime plannedEnd;
+    }
 }
@@ -0,0 +1,193 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.model.Material;
+import com.zilla.eproc.model.Request;
+import com.zilla.eproc.repository.MaterialRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of the normalized material names in use at each
+ * site, for fuzzy duplicate detection.
+ *
+ * The index only expands a requested name into the similar names that exist
+ * at the site; the database stays the source of truth for which requests
+ * contain them. A stale name therefore costs nothing, and a name missing
+ * from the index (e.g. written by another node) only loses fuzzy matches,
+ * never exact ones. The index is warmed on startup, updated on request
+ * creation and rebuilt periodically.
+ */
+@Component
+@Slf4j
+public class MaterialNameIndex {
+
+    private final MaterialRepository materialRepository;
+    private final MaterialNameMatcher matcher;
+    private final double similarityThreshold;
+    private final int maxTermFrequency;
+
+    private volatile Map<Long, SiteVocabulary> sites = new ConcurrentHashMap<>();
+
+    public MaterialNameIndex(
+            MaterialRepository materialRepository,
+            MaterialNameMatcher matcher,
+            @Value("${eproc.duplicate-detection.similarity-threshold:0.5}") double similarityThreshold,
+            @Value("${eproc.duplicate-detection.max-term-frequency:2000}") int maxTermFrequency) {
+        if (similarityThreshold <= 0 || similarityThreshold > 1) {
+            throw new IllegalArgumentException(
+                    "eproc.duplicate-detection.similarity-threshold must be in (0, 1]");
+        }
+        if (maxTermFrequency < 1) {
+            throw new IllegalArgumentException("eproc.duplicate-detection.max-term-frequency must be >= 1");
+        }
+        this.materialRepository = materialRepository;
+        this.matcher = matcher;
+        this.similarityThreshold = similarityThreshold;
+        this.maxTermFrequency = maxTermFrequency;
+    }
+
+    /**
+     * Rebuild the index from the open requests in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${eproc.duplicate-detection.index-refresh-ms:600000}",
+            initialDelayString = "${eproc.duplicate-detection.index-refresh-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Map<Long, SiteVocabulary> rebuilt = new ConcurrentHashMap<>();
+        List<MaterialRepository.SiteMaterialName> rows = materialRepository.findOpenSiteMaterialNames();
+        for (MaterialRepository.SiteMaterialName row : rows) {
+            rebuilt.computeIfAbsent(row.getSiteId(), id -> new SiteVocabulary())
+                    .add(row.getNormalizedName(), matcher.terms(row.getNormalizedName()));
+        }
+        sites = rebuilt;
+        log.info("Material name index rebuilt: {} names across {} sites in {} ms",
+                rows.size(), rebuilt.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Add the material names of newly created requests.
+     */
+    public void addAll(Collection<Request> requests) {
+        for (Request request : requests) {
+            for (Material material : request.getMaterials()) {
+                add(material.getSiteId(), material.getNormalizedName());
+            }
+        }
+    }
+
+    /**
+     * Add one normalized material name at a site.
+     */
+    public void add(Long siteId, String normalizedName) {
+        if (siteId == null || normalizedName == null) {
+            return;
+        }
+        sites.computeIfAbsent(siteId, id -> new SiteVocabulary())
+                .add(normalizedName, matcher.terms(normalizedName));
+    }
+
+    /**
+     * Names at a site with the same sizes and grades as the given normalized
+     * name whose similarity to it reaches the configured threshold (the name
+     * itself included when present).
+     */
+    public Set<String> findSimilar(Long siteId, String normalizedName) {
+        SiteVocabulary vocabulary = sites.get(siteId);
+        if (vocabulary == null || normalizedName == null) {
+            return Set.of();
+        }
+        return vocabulary.findSimilar(normalizedName, matcher.terms(normalizedName), matcher, similarityThreshold,
+                maxTermFrequency);
+    }
+
+    /**
+     * Whether two normalized names are the same material by the criterion
+     * {@link #findSimilar} applies, for comparing names outside the index.
+     */
+    public boolean isSimilar(String normalizedName, String otherName) {
+        if (normalizedName == null || otherName == null) {
+            return false;
+        }
+        return normalizedName.equals(otherName)
+                || (matcher.sameSpecification(normalizedName, otherName)
+                        && matcher.similarity(matcher.terms(normalizedName), matcher.terms(otherName))
+                                >= similarityThreshold);
+    }
+
+    /**
+     * Names and term postings of one site.
+     */
+    private static final class SiteVocabulary {
+        private final Map<String, Set<String>> termsByName = new HashMap<>();
+        private final Map<String, Set<String>> namesByTerm = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void add(String name, Set<String> terms) {
+            lock.writeLock().lock();
+            try {
+                if (termsByName.putIfAbsent(name, terms) == null) {
+                    terms.forEach(term -> namesByTerm.computeIfAbsent(term, t -> new HashSet<>()).add(name));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Candidates are the names sharing a term, with the shared terms
+         * counted while walking the postings; only those that can still
+         * reach the threshold are compared. Terms on more than
+         * maxTermFrequency names (" 50", "ent") are not walked but counted
+         * as possibly shared, so a candidate is lost only if it shares
+         * nothing but such terms and those alone could reach the threshold.
+         */
+        Set<String> findSimilar(String name, Set<String> terms, MaterialNameMatcher matcher, double threshold,
+                int maxTermFrequency) {
+            lock.readLock().lock();
+            try {
+                Map<String, Integer> sharedByCandidate = new HashMap<>();
+                int skipped = 0;
+                for (String term : terms) {
+                    Set<String> names = namesByTerm.get(term);
+                    if (names == null) {
+                        continue;
+                    }
+                    if (names.size() > maxTermFrequency) {
+                        skipped++;
+                        continue;
+                    }
+                    for (String candidate : names) {
+                        sharedByCandidate.merge(candidate, 1, Integer::sum);
+                    }
+                }
+                Set<String> similar = new HashSet<>();
+                for (Map.Entry<String, Integer> entry : sharedByCandidate.entrySet()) {
+                    Set<String> candidateTerms = termsByName.get(entry.getKey());
+                    if (entry.getValue() + skipped
+                            < matcher.minSharedTerms(terms.size(), candidateTerms.size(), threshold)) {
+                        continue;
+                    }
+                    if (matcher.sameSpecification(name, entry.getKey())
+                            && matcher.similarity(terms, candidateTerms) >= threshold) {
+                        similar.add(entry.getKey());
+                    }
+                }
+                return similar;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.zilla.eproc.service;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Similarity measure over normalized material names, used by
+ * {@link MaterialNameIndex} for fuzzy duplicate detection.
+ *
+ * Names are broken into terms; names sharing no term are never compared,
+ * so terms double as the keys of the per-site inverted index. Names must
+ * also carry the same sizes and grades before their terms are compared.
+ */
+public interface MaterialNameMatcher {
+
+    /**
+     * Index terms of a normalized material name.
+     */
+    Set<String> terms(String normalizedName);
+
+    /**
+     * Similarity in [0, 1] of two names given their terms.
+     * Defaults to the Jaccard coefficient.
+     */
+    default double similarity(Set<String> terms, Set<String> otherTerms) {
+        if (terms.isEmpty() || otherTerms.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> smaller = terms.size() <= otherTerms.size() ? terms : otherTerms;
+        Set<String> larger = smaller == terms ? otherTerms : terms;
+        long shared = smaller.stream().filter(larger::contains).count();
+        return (double) shared / (terms.size() + otherTerms.size() - shared);
+    }
+
+    /**
+     * Fewest shared terms with which names of the given term counts can
+     * reach the threshold, so the index can discard candidates before
+     * comparing them. Must agree with {@link #similarity}; for Jaccard,
+     * shared / (a + b - shared) >= t needs shared >= t (a + b) / (1 + t).
+     */
+    default int minSharedTerms(int termCount, int otherTermCount, double threshold) {
+        // The epsilon keeps an exact integer bound from rounding up past itself
+        return (int) Math.ceil(threshold * (termCount + otherTermCount) / (1 + threshold) - 1e-9);
+    }
+
+    /**
+     * Whether two normalized names carry the same sizes and grades, i.e. the
+     * same words containing a digit. "steel 12" and "steel 16", or "concrete
+     * c25" and "concrete c30", are different materials however similar the
+     * rest of the name is.
+     */
+    default boolean sameSpecification(String normalizedName, String otherName) {
+        return specification(normalizedName).equals(specification(otherName));
+    }
+
+    private static Set<String> specification(String normalizedName) {
+        return Arrays.stream(normalizedName.split(" "))
+                .filter(word -> word.chars().anyMatch(Character::isDigit))
+                .collect(Collectors.toSet());
+    }
+}
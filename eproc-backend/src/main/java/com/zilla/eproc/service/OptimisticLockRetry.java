@@ -0,0 +1,81 @@
+package com.zilla.eproc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a status transition in its own transaction and, when it loses an
+ * optimistic-lock race, runs it again from fresh reads. After the last
+ * attempt the conflict propagates (409 to the client).
+ *
+ * The work must be safe to repeat: everything it wrote is rolled back
+ * before the next attempt.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticLockRetry(
+            PlatformTransactionManager transactionManager,
+            @Value("${eproc.concurrency.optimistic-lock.max-attempts:3}") int maxAttempts,
+            @Value("${eproc.concurrency.optimistic-lock.backoff-ms:20}") long backoffMillis) {
+        if (maxAttempts < 1 || backoffMillis < 0) {
+            throw new IllegalArgumentException(
+                    "eproc.concurrency.optimistic-lock max-attempts must be >= 1 and backoff-ms must not be negative");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Run the work, retrying on optimistic-lock conflicts. Inside a caller's
+     * transaction it runs once: a retry there would reuse the persistence
+     * context that saw the stale state.
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Optimistic lock conflict on attempt {} of {}, retrying: {}",
+                        attempt, maxAttempts, e.getMessage());
+                pause(attempt, e);
+            }
+        }
+    }
+
+    /**
+     * Back off a little longer per attempt, with jitter so the transactions
+     * that collided do not collide again.
+     */
+    private void pause(int attempt, OptimisticLockingFailureException conflict) {
+        if (backoffMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.zilla.eproc.service;
 
 import com.zilla.eproc.dto.CreatePurchaseOrderDTO;
+import com.zilla.eproc.dto.CursorPageDTO;
+import com.zilla.eproc.dto.KeysetCursor;
 import com.zilla.eproc.dto.PurchaseOrderResponseDTO;
 import com.zilla.eproc.exception.ForbiddenException;
 import com.zilla.eproc.exception.ResourceNotFoundException;
 import com.zilla.eproc.model.*;
 import com.zilla.eproc.repository.*;
+import com.zilla.eproc.security.AuthenticatedUser;
+import com.zilla.eproc.util.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,159 +35,301 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProcurementService {
 
+        private static final int MAX_PAGE_SIZE = 100;
+
         private final PurchaseOrderRepository purchaseOrderRepository;
-        // private final PurchaseOrderItemRepository purchaseOrderItemRepository; //
-        // Reserved for future use
+        private final PurchaseOrderItemRepository purchaseOrderItemRepository;
         private final RequestRepository requestRepository;
+        private final RequestDeliveryLedgerRepository requestDeliveryLedgerRepository;
         private final ProjectRepository projectRepository;
         private final SiteRepository siteRepository;
         private final UserRepository userRepository;
+        private final ReferenceCodeService referenceCodeService;
+        private final DashboardCounterService dashboardCounterService;
+        private final ProjectSecurityService projectSecurityService;
+        private final OptimisticLockRetry optimisticLockRetry;
 
         /**
          * Create a new Purchase Order.
          * Validates that requests are APPROVED and user has permission.
          */
-        @Transactional
         public PurchaseOrderResponseDTO createPurchaseOrder(CreatePurchaseOrderDTO dto, String userEmail) {
-                log.info("Creating purchase order for project {} by user {}", dto.getProjectId(), userEmail);
+                return createPurchaseOrders(List.of(dto), userEmail).get(0);
+        }
+
+        /**
+         * Create several purchase orders in one transaction, e.g. the approved
+         * requests of a project split by vendor. Either all are created or
+         * none.
+         *
+         * Projects, sites and requests are each loaded with one query for the
+         * whole batch and validated in memory. Requests move to ORDERED with a
+         * single bulk update, and POs and items are inserted in JDBC batches.
+         * A batch that loses a race for one of its requests is retried from
+         * fresh reads (see OptimisticLockRetry).
+         */
+        public List<PurchaseOrderResponseDTO> createPurchaseOrders(List<CreatePurchaseOrderDTO> dtos,
+                        String userEmail) {
+                return optimisticLockRetry.execute(() -> applyPurchaseOrders(dtos, userEmail));
+        }
+
+        private List<PurchaseOrderResponseDTO> applyPurchaseOrders(List<CreatePurchaseOrderDTO> dtos,
+                        String userEmail) {
+                if (dtos == null || dtos.isEmpty()) {
+                        throw new IllegalArgumentException("At least one purchase order is required");
+                }
+                log.info("Creating {} purchase order(s) by user {}", dtos.size(), userEmail);
 
                 // Get user
-                User creator = userRepository.findByEmail(userEmail)
+                AuthenticatedUser creator = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 // Validate project access
-                Project project = projectRepository.findById(dto.getProjectId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
-
-                boolean isOwner = project.getOwner() != null && project.getOwner().getId().equals(creator.getId());
-                boolean isAccountant = project.getTeamAssignments().stream()
-                                .anyMatch(assignment -> Boolean.TRUE.equals(assignment.getIsActive())
-                                                && assignment.getUser() != null
-                                                && assignment.getUser().getId().equals(creator.getId())
-                                                && assignment.getRole() == ProjectRole.PROJECT_ACCOUNTANT);
-
-                if (!isOwner && !isAccountant) {
-                        throw new ForbiddenException("Only project owners and accountants can create purchase orders");
-                }
-
-                // Get site if specified
-                Site site = null;
-                if (dto.getSiteId() != null) {
-                        site = siteRepository.findById(dto.getSiteId())
-                                        .orElseThrow(() -> new ResourceNotFoundException("Site not found"));
+                Map<Long, Project> projects = projectRepository.findAllById(dtos.stream()
+                                .map(CreatePurchaseOrderDTO::getProjectId)
+                                .collect(Collectors.toSet())).stream()
+                                .collect(Collectors.toMap(Project::getId, Function.identity()));
+
+                for (Project project : projects.values()) {
+                        boolean isOwner = project.getOwner() != null
+                                        && project.getOwner().getId().equals(creator.getId());
+                        boolean isAccountant = !isOwner && projectSecurityService.isActiveMember(creator.getId(),
+                                        project.getId(), ProjectRole.PROJECT_ACCOUNTANT);
+
+                        if (!isOwner && !isAccountant) {
+                                throw new ForbiddenException(
+                                                "Only project owners and accountants can create purchase orders");
+                        }
                 }
 
-                // Create PO
-                PurchaseOrder po = PurchaseOrder.builder()
-                                .project(project)
-                                .site(site)
-                                .createdBy(creator)
-                                .status(PurchaseOrderStatus.OPEN)
-                                .vendorName(dto.getVendorName())
-                                .notes(dto.getNotes())
-                                .build();
+                // Get sites if specified
+                Set<Long> siteIds = dtos.stream()
+                                .map(CreatePurchaseOrderDTO::getSiteId)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet());
+                Map<Long, Site> sites = siteIds.isEmpty() ? Map.of()
+                                : siteRepository.findAllById(siteIds).stream()
+                                                .collect(Collectors.toMap(Site::getId, Function.identity()));
+
+                // Get all referenced requests in one query
+                Set<Long> requestIds = dtos.stream()
+                                .flatMap(dto -> dto.getItems().stream())
+                                .map(CreatePurchaseOrderDTO.PurchaseOrderItemDTO::getRequestId)
+                                .collect(Collectors.toSet());
+                Map<Long, Request> requests = requestRepository.findAllById(requestIds).stream()
+                                .collect(Collectors.toMap(Request::getId, Function.identity()));
+
+                User createdBy = creator.toEntity(userRepository);
+                List<PurchaseOrder> pos = new ArrayList<>();
+                Map<Long, BigDecimal> orderedByRequest = new HashMap<>();
+
+                for (CreatePurchaseOrderDTO dto : dtos) {
+                        Project project = projects.get(dto.getProjectId());
+                        if (project == null) {
+                                throw new ResourceNotFoundException("Project not found");
+                        }
 
-                // Generate PO number
-                String poNumber = generatePONumber();
-                po.setPoNumber(poNumber);
-
-                // Create items
-                for (CreatePurchaseOrderDTO.PurchaseOrderItemDTO itemDto : dto.getItems()) {
-                        Request request = requestRepository.findById(itemDto.getRequestId())
-                                        .orElseThrow(() -> new ResourceNotFoundException(
-                                                        "Request not found: " + itemDto.getRequestId()));
-
-                        // Validate request is APPROVED
-                        if (request.getStatus() != RequestStatus.APPROVED
-                                        && request.getStatus() != RequestStatus.PARTIALLY_DELIVERED
-                                        && request.getStatus() != RequestStatus.ORDERED) {
-                                throw new IllegalStateException(
-                                                "Request " + request.getId() + " is not approved for ordering");
+                        Site site = null;
+                        if (dto.getSiteId() != null) {
+                                site = sites.get(dto.getSiteId());
+                                if (site == null) {
+                                        throw new ResourceNotFoundException("Site not found");
+                                }
                         }
 
-                        // Calculate total price
-                        BigDecimal totalPrice = itemDto.getOrderedQty().multiply(itemDto.getUnitPrice());
-
-                        // Create PO item
-                        PurchaseOrderItem poItem = PurchaseOrderItem.builder()
-                                        .purchaseOrder(po)
-                                        .request(request)
-                                        .materialDisplayName(itemDto.getMaterialDisplayName())
-                                        .orderedQty(itemDto.getOrderedQty())
-                                        .unit(itemDto.getUnit())
-                                        .unitPrice(itemDto.getUnitPrice())
-                                        .totalPrice(totalPrice)
+                        // Create PO
+                        PurchaseOrder po = PurchaseOrder.builder()
+                                        .project(project)
+                                        .site(site)
+                                        .createdBy(createdBy)
+                                        .status(PurchaseOrderStatus.OPEN)
+                                        .vendorName(dto.getVendorName())
+                                        .notes(dto.getNotes())
                                         .build();
 
-                        po.getItems().add(poItem);
+                        // Allocate PO number
+                        po.setPoNumber(referenceCodeService.nextPoNumber());
+
+                        // Create items
+                        for (CreatePurchaseOrderDTO.PurchaseOrderItemDTO itemDto : dto.getItems()) {
+                                Request request = requests.get(itemDto.getRequestId());
+                                if (request == null) {
+                                        throw new ResourceNotFoundException(
+                                                        "Request not found: " + itemDto.getRequestId());
+                                }
+
+                                if (!request.getProject().getId().equals(project.getId())) {
+                                        throw new IllegalStateException("Request " + request.getId()
+                                                        + " does not belong to project " + project.getId());
+                                }
+
+                                // Validate request is APPROVED
+                                if (request.getStatus() != RequestStatus.APPROVED
+                                                && request.getStatus() != RequestStatus.PARTIALLY_DELIVERED
+                                                && request.getStatus() != RequestStatus.ORDERED) {
+                                        throw new IllegalStateException(
+                                                        "Request " + request.getId() + " is not approved for ordering");
+                                }
+
+                                // Calculate total price
+                                BigDecimal totalPrice = itemDto.getOrderedQty().multiply(itemDto.getUnitPrice());
+
+                                // Create PO item
+                                PurchaseOrderItem poItem = PurchaseOrderItem.builder()
+                                                .purchaseOrder(po)
+                                                .request(request)
+                                                .materialDisplayName(itemDto.getMaterialDisplayName())
+                                                .orderedQty(itemDto.getOrderedQty())
+                                                .unit(itemDto.getUnit())
+                                                .unitPrice(itemDto.getUnitPrice())
+                                                .totalPrice(totalPrice)
+                                                .build();
+
+                                po.getItems().add(poItem);
+                                orderedByRequest.merge(request.getId(), itemDto.getOrderedQty(), BigDecimal::add);
+                        }
 
-                        // Update request status to ORDERED if not already
-                        updateRequestStatusAfterOrdering(request);
+                        pos.add(po);
                 }
 
-                // Save PO
-                po = purchaseOrderRepository.save(po);
+                // Save POs
+                pos = purchaseOrderRepository.saveAll(pos);
 
-                log.info("Created purchase order {} with {} items", po.getPoNumber(), po.getItems().size());
+                recordOrderedOnLedgers(orderedByRequest);
 
-                return mapToResponseDTO(po);
+                // Update request status to ORDERED if not already
+                markOrdered(orderedByRequest.keySet().stream().map(requests::get).toList(), projects);
+
+                pos.forEach(po -> log.info("Created purchase order {} with {} items", po.getPoNumber(),
+                                po.getItems().size()));
+
+                return pos.stream()
+                                .map(po -> mapToResponseDTO(po, po.getItems()))
+                                .collect(Collectors.toList());
+        }
+
+        /**
+         * Add ordered quantities to the requests' delivery ledgers, loaded in
+         * one query. A request ordered for the first time gets its ledger here.
+         */
+        private void recordOrderedOnLedgers(Map<Long, BigDecimal> orderedByRequest) {
+                Map<Long, RequestDeliveryLedger> ledgers = requestDeliveryLedgerRepository
+                                .findAllById(orderedByRequest.keySet()).stream()
+                                .collect(Collectors.toMap(RequestDeliveryLedger::getRequestId, Function.identity()));
+
+                List<RequestDeliveryLedger> created = new ArrayList<>();
+                orderedByRequest.forEach((requestId, quantity) -> {
+                        RequestDeliveryLedger ledger = ledgers.get(requestId);
+                        if (ledger == null) {
+                                ledger = RequestDeliveryLedger.builder().requestId(requestId).build();
+                                created.add(ledger);
+                        }
+                        ledger.recordOrdered(quantity);
+                });
+                requestDeliveryLedgerRepository.saveAll(created);
         }
 
         /**
-         * Update request status after creating a PO.
-         * Status becomes ORDERED if there's at least one PO item.
+         * Move APPROVED requests to ORDERED with one bulk update. The loaded
+         * Request entities keep their old status and are not used afterwards.
+         * If any of them left APPROVED since it was read, the whole batch
+         * conflicts and is retried from fresh reads.
          */
-        private void updateRequestStatusAfterOrdering(Request request) {
-                if (request.getStatus() == RequestStatus.APPROVED) {
-                        request.setStatus(RequestStatus.ORDERED);
-                        requestRepository.save(request);
+        private void markOrdered(List<Request> requests, Map<Long, Project> projects) {
+                List<Long> ids = new ArrayList<>();
+                List<DashboardCounterService.Transition> transitions = new ArrayList<>();
+                for (Request request : requests) {
+                        if (request.getStatus() == RequestStatus.APPROVED) {
+                                Project project = projects.get(request.getProject().getId());
+                                ids.add(request.getId());
+                                transitions.add(new DashboardCounterService.Transition(project.getId(),
+                                                project.getOwner() != null ? project.getOwner().getId() : null,
+                                                request.getCreatedBy().getId(), RequestStatus.APPROVED,
+                                                RequestStatus.ORDERED));
+                        }
+                }
+                if (!ids.isEmpty()) {
+                        int updated = requestRepository.updateStatusByIdInAndStatus(ids, RequestStatus.APPROVED,
+                                        RequestStatus.ORDERED);
+                        if (updated != ids.size()) {
+                                throw new OptimisticLockingFailureException(
+                                                "Requests changed status while being ordered: " + ids);
+                        }
+                        dashboardCounterService.recordTransitions(transitions);
                 }
         }
 
         /**
-         * Generate unique PO number in format: PO-{YEAR}-{SEQUENCE}
+         * Get all purchase orders for a project.
+         */
+        @Transactional(readOnly = true)
+        public List<PurchaseOrderResponseDTO> getProjectPurchaseOrders(Long projectId, String userEmail) {
+                AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                requireProjectAccess(projectId, user);
+
+                List<PurchaseOrder> pos = purchaseOrderRepository.findHeadersByProjectId(projectId);
+
+                return mapToResponseDTOs(pos);
+        }
+
+        /**
+         * Page of purchase orders for a project, newest first.
          */
-        private String generatePONumber() {
-                int currentYear = Year.now().getValue();
-                int sequence = 1;
-                String poNumber;
+        @Transactional(readOnly = true)
+        public CursorPageDTO<PurchaseOrderResponseDTO> getProjectPurchaseOrdersPage(Long projectId, String userEmail,
+                        String cursor, int limit) {
+                AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                requireProjectAccess(projectId, user);
 
-                do {
-                        poNumber = String.format("PO-%d-%04d", currentYear, sequence);
-                        sequence++;
-                } while (purchaseOrderRepository.existsByPoNumber(poNumber));
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
 
-                return poNumber;
+                List<PurchaseOrder> pos = purchaseOrderRepository.findHeadersPageByProjectId(projectId,
+                                after != null ? after.getCreatedAt() : null, after != null ? after.getId() : null,
+                                PageRequest.of(0, pageSize + 1));
+
+                // Items are loaded for the returned rows only, not the look-ahead row
+                boolean hasMore = pos.size() > pageSize;
+                List<PurchaseOrder> page = hasMore ? pos.subList(0, pageSize) : pos;
+                PurchaseOrder last = page.isEmpty() ? null : page.get(page.size() - 1);
+                String nextCursor = hasMore ? new KeysetCursor(last.getCreatedAt(), last.getId()).encode() : null;
+
+                return new CursorPageDTO<>(mapToResponseDTOs(page), nextCursor, hasMore);
         }
 
         /**
-         * Get all purchase orders for a project.
+         * ETag of {@link #getProjectPurchaseOrders(Long, String)}, computed
+         * without loading the purchase orders.
          */
         @Transactional(readOnly = true)
-        public List<PurchaseOrderResponseDTO> getProjectPurchaseOrders(Long projectId, String userEmail) {
-                User user = userRepository.findByEmail(userEmail)
+        public String getProjectPurchaseOrdersETag(Long projectId, String userEmail) {
+                AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-                Project project = projectRepository.findById(projectId)
+                requireProjectAccess(projectId, user);
+
+                return ETags.of(purchaseOrderRepository.findVersionByProject(projectId), "purchase-orders-project",
+                                projectId);
+        }
+
+        /**
+         * Verify the user owns or is assigned to the project.
+         */
+        private void requireProjectAccess(Long projectId, AuthenticatedUser user) {
+                ProjectRepository.ProjectOwnership ownership = projectRepository.findOwnershipById(projectId)
                                 .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
 
-                // Verify access - check if user is project owner or assigned to the project
-                boolean isProjectOwner = project.getOwner() != null && project.getOwner().getId().equals(user.getId());
-                boolean isTeamMember = project.getTeamAssignments().stream()
-                                .anyMatch(assignment -> Boolean.TRUE.equals(assignment.getIsActive())
-                                                && assignment.getUser() != null
-                                                && assignment.getUser().getId().equals(user.getId()));
-                boolean hasAccess = isProjectOwner || isTeamMember;
+                boolean isProjectOwner = user.getId().equals(ownership.getOwnerId());
+                boolean isTeamMember = !isProjectOwner
+                                && projectSecurityService.isActiveMember(user.getId(), projectId);
 
-                if (!hasAccess) {
+                if (!isProjectOwner && !isTeamMember) {
                         throw new ForbiddenException("You don't have access to this project");
                 }
-
-                List<PurchaseOrder> pos = purchaseOrderRepository.findByProjectIdOrderByCreatedAtDesc(projectId);
-
-                return pos.stream()
-                                .map(this::mapToResponseDTO)
-                                .collect(Collectors.toList());
         }
 
         /**
@@ -184,33 +337,49 @@ public class ProcurementService {
          */
         @Transactional(readOnly = true)
         public PurchaseOrderResponseDTO getPurchaseOrderById(Long id, String userEmail) {
-                PurchaseOrder po = purchaseOrderRepository.findById(id)
+                PurchaseOrder po = purchaseOrderRepository.findHeaderById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Purchase order not found"));
 
-                User user = userRepository.findByEmail(userEmail)
+                AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 // Verify access - check if user is project owner or assigned to the project
                 Project project = po.getProject();
                 boolean isProjectOwner = project.getOwner() != null && project.getOwner().getId().equals(user.getId());
-                boolean isTeamMember = project.getTeamAssignments().stream()
-                                .anyMatch(assignment -> Boolean.TRUE.equals(assignment.getIsActive())
-                                                && assignment.getUser() != null
-                                                && assignment.getUser().getId().equals(user.getId()));
+                boolean isTeamMember = !isProjectOwner
+                                && projectSecurityService.isActiveMember(user.getId(), project.getId());
                 boolean hasAccess = isProjectOwner || isTeamMember;
 
                 if (!hasAccess) {
                         throw new ForbiddenException("You don't have access to this purchase order");
                 }
 
-                return mapToResponseDTO(po);
+                return mapToResponseDTOs(List.of(po)).get(0);
+        }
+
+        /**
+         * Map PO headers (project, site and creator fetched) to response DTOs.
+         * The items of all POs are loaded with their requests in one query.
+         */
+        private List<PurchaseOrderResponseDTO> mapToResponseDTOs(List<PurchaseOrder> pos) {
+                if (pos.isEmpty()) {
+                        return List.of();
+                }
+                Map<Long, List<PurchaseOrderItem>> itemsByPo = purchaseOrderItemRepository
+                                .findByPurchaseOrderIdInOrderByIdAsc(pos.stream().map(PurchaseOrder::getId).toList())
+                                .stream()
+                                .collect(Collectors.groupingBy(item -> item.getPurchaseOrder().getId()));
+
+                return pos.stream()
+                                .map(po -> mapToResponseDTO(po, itemsByPo.getOrDefault(po.getId(), List.of())))
+                                .collect(Collectors.toList());
         }
 
         /**
-         * Map PO to response DTO.
+         * Map PO to response DTO. Items must have their request loaded.
          */
-        private PurchaseOrderResponseDTO mapToResponseDTO(PurchaseOrder po) {
-                List<PurchaseOrderResponseDTO.PurchaseOrderItemResponseDTO> itemDtos = po.getItems().stream()
+        private PurchaseOrderResponseDTO mapToResponseDTO(PurchaseOrder po, List<PurchaseOrderItem> items) {
+                List<PurchaseOrderResponseDTO.PurchaseOrderItemResponseDTO> itemDtos = items.stream()
                                 .map(item -> PurchaseOrderResponseDTO.PurchaseOrderItemResponseDTO.builder()
                                                 .id(item.getId())
                                                 .requestId(item.getRequest().getId())
@@ -235,7 +404,9 @@ public class ProcurementService {
                                 .status(po.getStatus())
                                 .vendorName(po.getVendorName())
                                 .notes(po.getNotes())
-                                .totalValue(po.getTotalValue())
+                                .totalValue(items.stream()
+                                                .map(PurchaseOrderItem::getTotalPrice)
+                                                .reduce(BigDecimal.ZERO, BigDecimal::add))
                                 .createdAt(po.getCreatedAt())
                                 .updatedAt(po.getUpdatedAt())
                                 .createdByName(po.getCreatedBy().getName())
@@ -0,0 +1,173 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.model.ProjectRole;
+import com.zilla.eproc.repository.CacheStampRepository;
+import com.zilla.eproc.repository.ProjectAssignmentRepository;
+import com.zilla.eproc.repository.ProjectRepository;
+import com.zilla.eproc.security.InvalidationStamp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Caches what ProjectSecurityService needs to decide project access for a
+ * (userId, projectId) pair: whether the user owns the project and the
+ * user's assignment role, active flag and date window.
+ *
+ * Date windows are stored rather than evaluated, so entries stay correct as
+ * days pass. Services that change assignments evict the affected entries,
+ * again after commit, and a lookup that loaded before an eviction does not
+ * cache what it read. Evictions bump an {@link InvalidationStamp} so other
+ * nodes drop their entries within the stamp check interval; the TTL only
+ * bounds changes made outside the services. Projects that do not exist are
+ * never cached.
+ */
+@Component
+public class ProjectAccessCache {
+
+    private final ProjectRepository projectRepository;
+    private final ProjectAssignmentRepository projectAssignmentRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final InvalidationStamp stamp;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProjectAccessCache(
+            ProjectRepository projectRepository,
+            ProjectAssignmentRepository projectAssignmentRepository,
+            CacheStampRepository cacheStampRepository,
+            @Value("${eproc.auth.project-access-cache.ttl-ms:300000}") long ttlMillis,
+            @Value("${eproc.auth.project-access-cache.max-size:50000}") int maxSize,
+            @Value("${eproc.auth.cache-stamp-check-ms:1000}") long stampCheckMillis) {
+        if (ttlMillis < 0 || maxSize < 0 || stampCheckMillis < 0) {
+            throw new IllegalArgumentException("eproc.auth.project-access-cache ttl-ms, max-size and "
+                    + "eproc.auth.cache-stamp-check-ms must not be negative");
+        }
+        this.projectRepository = projectRepository;
+        this.projectAssignmentRepository = projectAssignmentRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.stamp = new InvalidationStamp(cacheStampRepository, "project_access", stampCheckMillis);
+    }
+
+    /**
+     * Membership of a user in a project, or empty if the project does not
+     * exist.
+     */
+    public Optional<Membership> get(Long userId, Long projectId) {
+        if (ttlMillis > 0 && maxSize > 0 && stamp.changed()) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        long now = System.currentTimeMillis();
+        Key key = new Key(userId, projectId);
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return Optional.of(cached.membership());
+        }
+
+        long loadedAt = generation.get();
+        Optional<Membership> loaded = load(userId, projectId);
+        if (loaded.isEmpty()) {
+            entries.remove(key);
+        } else if (maxSize > 0 && ttlMillis > 0) {
+            if (entries.size() >= maxSize) {
+                evictExpired(now);
+            }
+            if (entries.size() < maxSize) {
+                entries.put(key, new Entry(loaded.get(), now + ttlMillis));
+                if (generation.get() != loadedAt) {
+                    // Evicted while loading: what was read may predate the change
+                    entries.remove(key);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Forget one user's membership in one project.
+     */
+    public void evict(Long userId, Long projectId) {
+        Key key = new Key(userId, projectId);
+        evictIf(k -> k.equals(key));
+    }
+
+    /**
+     * Forget all memberships of a user, e.g. after deletion.
+     */
+    public void evictUser(Long userId) {
+        evictIf(k -> k.userId().equals(userId));
+    }
+
+    private void evictIf(Predicate<Key> matches) {
+        stamp.bump();
+        removeIf(matches);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removeIf(matches);
+                }
+            });
+        }
+    }
+
+    private void removeIf(Predicate<Key> matches) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(matches);
+    }
+
+    private Optional<Membership> load(Long userId, Long projectId) {
+        return projectRepository.findOwnershipById(projectId).map(ownership -> {
+            boolean owner = userId.equals(ownership.getOwnerId());
+            ProjectAssignmentRepository.AssignmentStanding assignment = projectAssignmentRepository
+                    .findStandingByProjectIdAndUserId(projectId, userId)
+                    .orElse(null);
+            if (assignment == null) {
+                return new Membership(owner, false, null, false, null, null);
+            }
+            return new Membership(owner, true, assignment.getRole(), Boolean.TRUE.equals(assignment.getIsActive()),
+                    assignment.getStartDate(), assignment.getEndDate());
+        });
+    }
+
+    /**
+     * Drop expired entries; if the cache is still full, start over rather
+     * than track recency on every hit.
+     */
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * A user's standing in an existing project.
+     */
+    public record Membership(
+            boolean owner,
+            boolean assigned,
+            ProjectRole role,
+            boolean assignmentActive,
+            LocalDate startDate,
+            LocalDate endDate) {
+    }
+
+    private record Key(Long userId, Long projectId) {
+    }
+
+    private record Entry(Membership membership, long expiresAt) {
+    }
+}
@@ -27,6 +27,7 @@ public class ProjectAssignmentService {
     private final ProjectAssignmentRepository assignmentRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ProjectAccessCache projectAccessCache;
 
     /**
      * Get all active assignments for a project.
@@ -114,6 +115,7 @@ public class ProjectAssignmentService {
                 assignment.setEndDate(null); // Clear end date
 
                 ProjectAssignment saved = assignmentRepository.save(assignment);
+                projectAccessCache.evict(member.getId(), projectId);
                 return mapToDTO(saved);
             }
         }
@@ -128,6 +130,7 @@ public class ProjectAssignmentService {
                 .build();
 
         ProjectAssignment saved = assignmentRepository.save(assignment);
+        projectAccessCache.evict(member.getId(), projectId);
         return mapToDTO(saved);
     }
 
@@ -162,6 +165,9 @@ public class ProjectAssignmentService {
         assignment.setIsActive(false);
         assignment.setEndDate(java.time.LocalDate.now());
         assignmentRepository.save(assignment);
+        if (assignment.getUser() != null) {
+            projectAccessCache.evict(assignment.getUser().getId(), projectId);
+        }
     }
 
     /**
@@ -233,6 +239,9 @@ public class ProjectAssignmentService {
         }
 
         ProjectAssignment saved = assignmentRepository.save(assignment);
+        if (saved.getUser() != null) {
+            projectAccessCache.evict(saved.getUser().getId(), projectId);
+        }
         return mapToDTO(saved);
     }
 
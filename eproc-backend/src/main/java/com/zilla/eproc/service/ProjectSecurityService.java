@@ -1,26 +1,22 @@
 package com.zilla.eproc.service;
 
-import com.zilla.eproc.model.ProjectAssignment;
 import com.zilla.eproc.model.ProjectRole;
 import com.zilla.eproc.model.Role;
-import com.zilla.eproc.model.User;
-import com.zilla.eproc.repository.ProjectAssignmentRepository;
-import com.zilla.eproc.repository.ProjectRepository;
 import com.zilla.eproc.repository.UserRepository;
+import com.zilla.eproc.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class ProjectSecurityService {
 
-    private final ProjectAssignmentRepository projectAssignmentRepository;
     private final UserRepository userRepository;
-    private final ProjectRepository projectRepository;
+    private final ProjectAccessCache projectAccessCache;
 
     /**
      * Validate that a user has access to a project with one of the required roles.
@@ -30,81 +26,125 @@ public class ProjectSecurityService {
      * 3. Assignment is active and within date range.
      * 4. Assignment matches one of the required roles.
      */
-    @Transactional(readOnly = true)
     public void validateProjectAccess(String email, Long projectId, ProjectRole... requiredRoles) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Decision decision = decideProjectAccess(email, projectId, requiredRoles);
+        if (decision == Decision.ROLE_MISMATCH) {
+            throw new RuntimeException(
+                    "User does not have required project role: " + Arrays.toString(requiredRoles));
+        }
+        if (decision != Decision.GRANTED) {
+            throw new RuntimeException(decision.getMessage());
+        }
+    }
 
-        if (!Boolean.TRUE.equals(user.getActive())) {
-            throw new RuntimeException("User account is inactive");
+    public boolean hasProjectAccess(String email, Long projectId, ProjectRole... requiredRoles) {
+        return decideProjectAccess(email, projectId, requiredRoles) == Decision.GRANTED;
+    }
+
+    /**
+     * Decide project access without throwing. Membership comes from
+     * ProjectAccessCache, so a warm check costs one map lookup.
+     */
+    public Decision decideProjectAccess(String email, Long projectId, ProjectRole... requiredRoles) {
+        Optional<AuthenticatedUser> resolved = AuthenticatedUser.resolve(email, userRepository);
+        if (resolved.isEmpty()) {
+            return Decision.USER_NOT_FOUND;
+        }
+        AuthenticatedUser user = resolved.get();
+        if (!user.isActive()) {
+            return Decision.USER_INACTIVE;
         }
 
-        // Check if Project exists
-        if (!projectRepository.existsById(projectId)) {
-            throw new RuntimeException("Project not found");
+        Optional<ProjectAccessCache.Membership> found = projectAccessCache.get(user.getId(), projectId);
+        if (found.isEmpty()) {
+            return Decision.PROJECT_NOT_FOUND;
         }
+        ProjectAccessCache.Membership membership = found.get();
 
-        // 1. Check if user is PROJECT_OWNER (System Role) - usually has access to
-        // everything
-        if (user.getRole() == Role.OWNER) {
-            // Further check: Is this owner actually the owner of the project?
-            // Depends on business Logic. Usually Owner can access all their projects.
-            // For now, if system role is OWNER, we might check if they own THIS project.
-            // Implementing strict check:
-            boolean isOwner = projectRepository.findById(projectId)
-                    .map(p -> p.getOwner() != null && p.getOwner().getId().equals(user.getId()))
-                    .orElse(false);
-            if (isOwner)
-                return;
+        // 1. A user with system role OWNER has access to the projects they own
+        if (user.getRole() == Role.OWNER && membership.owner()) {
+            return Decision.GRANTED;
         }
 
+        return assignmentDecision(membership, requiredRoles);
+    }
+
+    /**
+     * Whether a user has an assignment on a project that is active and
+     * within its date window, in one of the given roles if any are given.
+     * Applies the same rules as {@link #decideProjectAccess} to the cached
+     * membership, minus the user and ownership checks the callers have
+     * already made.
+     */
+    public boolean isActiveMember(Long userId, Long projectId, ProjectRole... roles) {
+        return projectAccessCache.get(userId, projectId)
+                .map(membership -> assignmentDecision(membership, roles) == Decision.GRANTED)
+                .orElse(false);
+    }
+
+    private static Decision assignmentDecision(ProjectAccessCache.Membership membership,
+            ProjectRole... requiredRoles) {
         // 2. Check Project Assignment
-        ProjectAssignment assignment = projectAssignmentRepository.findByUserEmailAndProjectId(email, projectId)
-                .orElseThrow(() -> new RuntimeException("User is not assigned to this project"));
+        if (!membership.assigned()) {
+            return Decision.NOT_ASSIGNED;
+        }
 
         // 3. Validate Assignment Status and Dates
-        if (!Boolean.TRUE.equals(assignment.getIsActive())) {
-            throw new RuntimeException("Project assignment is inactive");
+        if (!membership.assignmentActive()) {
+            return Decision.ASSIGNMENT_INACTIVE;
         }
 
         LocalDate now = LocalDate.now();
-        if (assignment.getStartDate() != null && now.isBefore(assignment.getStartDate())) {
-            throw new RuntimeException("Project assignment has not started yet");
+        if (membership.startDate() != null && now.isBefore(membership.startDate())) {
+            return Decision.ASSIGNMENT_NOT_STARTED;
         }
-        if (assignment.getEndDate() != null && now.isAfter(assignment.getEndDate())) {
-            throw new RuntimeException("Project assignment has expired");
+        if (membership.endDate() != null && now.isAfter(membership.endDate())) {
+            return Decision.ASSIGNMENT_EXPIRED;
         }
 
         // 4. Validate Role
-        if (requiredRoles.length > 0) {
-            boolean hasRole = Arrays.stream(requiredRoles)
-                    .anyMatch(role -> role == assignment.getRole());
-            if (!hasRole) {
-                throw new RuntimeException(
-                        "User does not have required project role: " + Arrays.toString(requiredRoles));
-            }
-        }
-    }
-
-    public boolean hasProjectAccess(String email, Long projectId) {
-        try {
-            validateProjectAccess(email, projectId);
-            return true;
-        } catch (Exception e) {
-            return false;
+        if (requiredRoles.length > 0
+                && Arrays.stream(requiredRoles).noneMatch(role -> role == membership.role())) {
+            return Decision.ROLE_MISMATCH;
         }
+        return Decision.GRANTED;
     }
 
     public void validateProjectOwner(String email, Long projectId) {
-        User user = userRepository.findByEmail(email)
+        AuthenticatedUser user = AuthenticatedUser.resolve(email, userRepository)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        boolean isOwner = projectRepository.findById(projectId)
-                .map(p -> p.getOwner() != null && p.getOwner().getId().equals(user.getId()))
+        boolean isOwner = projectAccessCache.get(user.getId(), projectId)
+                .map(ProjectAccessCache.Membership::owner)
                 .orElse(false);
 
         if (!isOwner) {
             throw new RuntimeException("User is not the owner of this project");
         }
     }
+
+    /**
+     * Outcome of a project access check.
+     */
+    public enum Decision {
+        GRANTED("Access granted"),
+        USER_NOT_FOUND("User not found"),
+        USER_INACTIVE("User account is inactive"),
+        PROJECT_NOT_FOUND("Project not found"),
+        NOT_ASSIGNED("User is not assigned to this project"),
+        ASSIGNMENT_INACTIVE("Project assignment is inactive"),
+        ASSIGNMENT_NOT_STARTED("Project assignment has not started yet"),
+        ASSIGNMENT_EXPIRED("Project assignment has expired"),
+        ROLE_MISMATCH("User does not have required project role");
+
+        private final String message;
+
+        Decision(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
 }
@@ -13,6 +13,9 @@ import com.zilla.eproc.model.User;
 import com.zilla.eproc.repository.ProjectAssignmentRepository;
 import com.zilla.eproc.repository.ProjectRepository;
 import com.zilla.eproc.repository.UserRepository;
+import com.zilla.eproc.repository.VersionStamp;
+import com.zilla.eproc.security.AuthenticatedUser;
+import com.zilla.eproc.util.ETags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,7 +44,7 @@ public class ProjectService extends BaseProjectService {
          */
         @Transactional(readOnly = true)
         public List<ProjectDTO> getProjectsForUser(String userEmail) {
-                User user = userRepository.findByEmail(userEmail)
+                AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 List<Project> projects;
@@ -77,6 +80,27 @@ public class ProjectService extends BaseProjectService {
                                 .collect(Collectors.toList());
         }
 
+        /**
+         * ETag of {@link #getProjectsForUser(String)}, computed without
+         * loading the projects.
+         */
+        @Transactional(readOnly = true)
+        public String getProjectsForUserETag(String userEmail) {
+                AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                VersionStamp version;
+                if (user.getRole() == Role.OWNER) {
+                        version = projectRepository.findActiveVersionByOwner(user.getId());
+                } else if (user.getRole() == Role.ENGINEER || user.getRole() == Role.MANAGER
+                                || user.getRole() == Role.ACCOUNTANT) {
+                        version = projectRepository.findActiveVersionByMember(user.getId());
+                } else {
+                        return ETags.of(projectRepository.findActiveVersion(), "projects-all", 0);
+                }
+                return ETags.of(version, "projects-user", user.getId());
+        }
+
         /**
          * Create a new project with the authenticated user as the owner.
          * Only PROJECT_OWNER can create projects.
@@ -85,17 +109,18 @@ public class ProjectService extends BaseProjectService {
          */
         @Transactional
         public ProjectDTO createProject(ProjectDTO dto, String ownerEmail) {
-                User owner = userRepository.findByEmail(ownerEmail)
+                AuthenticatedUser owner = AuthenticatedUser.resolve(ownerEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 if (owner.getRole() != Role.OWNER) {
                         throw new ForbiddenException("Only Project Owners can create projects");
                 }
+                User ownerEntity = owner.toEntity(userRepository);
 
                 Project project = Project.builder()
                                 .name(dto.getName())
 
-                                .owner(owner)
+                                .owner(ownerEntity)
                                 .currency(dto.getCurrency() != null ? dto.getCurrency() : "TZS")
                                 .budgetTotal(dto.getBudgetTotal())
                                 .description(dto.getDescription())
@@ -142,7 +167,7 @@ public class ProjectService extends BaseProjectService {
                 // Auto-create OWNER assignment (immutable)
                 ProjectAssignment ownerAssignment = ProjectAssignment.builder()
                                 .project(saved)
-                                .user(owner)
+                                .user(ownerEntity)
                                 .role(ProjectRole.PROJECT_OWNER)
                                 .startDate(LocalDate.now())
                                 .isActive(true)
@@ -10,6 +10,7 @@ import com.zilla.eproc.repository.ProjectAssignmentRepository;
 import com.zilla.eproc.repository.ProjectRepository;
 import com.zilla.eproc.repository.UserDeletionAuditRepository;
 import com.zilla.eproc.repository.UserRepository;
+import com.zilla.eproc.security.ActiveUserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -33,6 +34,8 @@ public class ProjectUserService {
     private final ProjectAssignmentRepository assignmentRepository;
     private final UserDeletionAuditRepository userDeletionAuditRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ActiveUserCache activeUserCache;
+    private final ProjectAccessCache projectAccessCache;
 
     private static final String DEFAULT_PASSWORD = "123456";
 
@@ -209,6 +212,7 @@ public class ProjectUserService {
 
             assignmentRepository.save(assignment);
         }
+        projectAccessCache.evict(userId, projectId);
 
         return mapToProjectUserDTO(user);
     }
@@ -245,6 +249,7 @@ public class ProjectUserService {
         assignment.setIsActive(false);
         assignment.setEndDate(LocalDate.now());
         assignmentRepository.save(assignment);
+        projectAccessCache.evict(userId, projectId);
     }
 
     /**
@@ -268,6 +273,10 @@ public class ProjectUserService {
             throw new IllegalArgumentException("Email already registered");
         }
 
+        // Tokens issued to the old email must stop authenticating
+        activeUserCache.evict(user.getEmail());
+        activeUserCache.evict(request.getEmail());
+
         // Update user details
         user.setName(request.getName());
         user.setEmail(request.getEmail());
@@ -346,6 +355,8 @@ public class ProjectUserService {
 
         // Step 5: Hard delete the user
         userRepository.delete(user);
+        activeUserCache.evict(user.getEmail());
+        projectAccessCache.evictUser(userId);
     }
 
     // ==================== Helper Methods ====================
@@ -0,0 +1,170 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.repository.DocumentSequenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allocates human-readable reference codes (BOQ codes, PO numbers).
+ *
+ * Each series is backed by a row in document_sequences. A transaction that
+ * finds this node's block of values empty reserves the next block from that
+ * row itself, on the connection it already holds, and draws its own codes
+ * from it. What is left of the block is handed out from memory once the
+ * reservation has committed, so allocation is O(1) and codes are unique
+ * across nodes: a rolled-back reservation never leaves values in memory that
+ * another node could reserve again. Unused values leave gaps in the series
+ * but never duplicates.
+ */
+@Service
+@Slf4j
+public class ReferenceCodeService {
+
+    private final DocumentSequenceRepository documentSequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private final Map<String, SequenceBlock> blocks = new ConcurrentHashMap<>();
+    /**
+     * Transaction resource key for the blocks reserved by the current transaction.
+     */
+    private final Object reservedBlocksKey = new Object();
+
+    public ReferenceCodeService(
+            DocumentSequenceRepository documentSequenceRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${eproc.reference-codes.block-size:20}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("eproc.reference-codes.block-size must be at least 1");
+        }
+        this.documentSequenceRepository = documentSequenceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Next BOQ reference code in format: BOQ-{YEAR}-{SEQUENCE}
+     */
+    public String nextBoqReferenceCode() {
+        int currentYear = Year.now().getValue();
+        return String.format("BOQ-%d-%03d", currentYear, nextValue("BOQ-" + currentYear));
+    }
+
+    /**
+     * Next PO number in format: PO-{YEAR}-{SEQUENCE}
+     */
+    public String nextPoNumber() {
+        int currentYear = Year.now().getValue();
+        return String.format("PO-%d-%04d", currentYear, nextValue("PO-" + currentYear));
+    }
+
+    /**
+     * Hand out the next value of a series from this node's block, or from a
+     * block reserved by the caller's transaction when that one is empty.
+     */
+    long nextValue(String sequenceName) {
+        Long value = blocks.computeIfAbsent(sequenceName, name -> new SequenceBlock()).take();
+        if (value != null) {
+            return value;
+        }
+        // Joins the caller's transaction; starts one only for callers without
+        return transactionTemplate.execute(status -> nextReservedValue(sequenceName));
+    }
+
+    private long nextReservedValue(String sequenceName) {
+        SequenceBlock reserved = reservedBlocks().computeIfAbsent(sequenceName, name -> new SequenceBlock());
+        Long value = reserved.take();
+        if (value != null) {
+            return value;
+        }
+        long start = reserveBlock(sequenceName);
+        reserved.refill(start + 1, start + blockSize);
+        return start;
+    }
+
+    /**
+     * Blocks reserved by the current transaction. When it commits, what is
+     * left of them refills this node's blocks.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, SequenceBlock> reservedBlocks() {
+        Map<String, SequenceBlock> reserved =
+                (Map<String, SequenceBlock>) TransactionSynchronizationManager.getResource(reservedBlocksKey);
+        if (reserved != null) {
+            return reserved;
+        }
+        Map<String, SequenceBlock> newlyReserved = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(reservedBlocksKey, newlyReserved);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(reservedBlocksKey);
+                if (status == STATUS_COMMITTED) {
+                    newlyReserved.forEach((name, block) -> blocks.get(name).refillFrom(block));
+                }
+            }
+        });
+        return newlyReserved;
+    }
+
+    /**
+     * Advance the counter row past the next block and return the block's
+     * first value. The row stays locked until the caller commits, so other
+     * reservations of this series wait for it; with blocks of values that is
+     * one transaction in blockSize.
+     */
+    private long reserveBlock(String sequenceName) {
+        if (documentSequenceRepository.advance(sequenceName, blockSize) == 0) {
+            if (documentSequenceRepository.createIfAbsent(sequenceName) > 0) {
+                log.info("Started reference code sequence {}", sequenceName);
+            }
+            documentSequenceRepository.advance(sequenceName, blockSize);
+        }
+        return documentSequenceRepository.findNextValueByName(sequenceName).orElseThrow() - blockSize;
+    }
+
+    /**
+     * Values [next, limit) not yet handed out.
+     */
+    private static final class SequenceBlock {
+        private long next;
+        private long limit;
+
+        synchronized Long take() {
+            return next < limit ? next++ : null;
+        }
+
+        synchronized void refill(long from, long to) {
+            next = from;
+            limit = to;
+        }
+
+        /**
+         * Take over what is left of another block, unless this one still has
+         * values; the other block's values are then skipped.
+         */
+        void refillFrom(SequenceBlock other) {
+            long from;
+            long to;
+            synchronized (other) {
+                from = other.next;
+                to = other.limit;
+            }
+            synchronized (this) {
+                if (next >= limit) {
+                    refill(from, to);
+                }
+            }
+        }
+    }
+}
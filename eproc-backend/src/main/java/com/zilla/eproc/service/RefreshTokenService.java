@@ -4,61 +4,138 @@ import com.zilla.eproc.model.RefreshToken;
 import com.zilla.eproc.model.User;
 import com.zilla.eproc.repository.RefreshTokenRepository;
 import com.zilla.eproc.repository.UserRepository;
-
-import lombok.RequiredArgsConstructor;
+import com.zilla.eproc.util.TokenHasher;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
+/**
+ * Issues and rotates opaque refresh tokens.
+ *
+ * Only the SHA-256 of a token is stored, so a refresh is one indexed lookup
+ * by hash. Rotation replaces the hash in place with a conditional update, so
+ * of two concurrent refreshes with the same token only one succeeds. Each
+ * user keeps at most a fixed number of sessions, and expired or revoked rows
+ * are purged in bounded batches on a schedule.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class RefreshTokenService {
 
-    @Value("${jwt.refresh-expiration}")
-    private Long refreshTokenDurationMs;
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long refreshTokenDurationMs;
+    private final int maxSessionsPerUser;
+    private final int purgeBatchSize;
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
-    }
-
-    @Transactional
-    public void delete(RefreshToken token) {
-        refreshTokenRepository.delete(token);
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${jwt.refresh-expiration}") long refreshTokenDurationMs,
+            @Value("${jwt.refresh-max-sessions:5}") int maxSessionsPerUser,
+            @Value("${jwt.refresh-purge-batch-size:500}") int purgeBatchSize) {
+        if (maxSessionsPerUser < 1 || purgeBatchSize < 1) {
+            throw new IllegalArgumentException("jwt.refresh-max-sessions and jwt.refresh-purge-batch-size must be >= 1");
+        }
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTokenDurationMs = refreshTokenDurationMs;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+        this.purgeBatchSize = purgeBatchSize;
     }
 
+    /**
+     * Start a new session for a user, dropping the user's oldest sessions
+     * beyond the cap. Returns the token to hand to the client.
+     */
     @Transactional
-    public RefreshToken createRefreshToken(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-
-        // No longer deleting existing tokens to support multiple sessions and prevent
-        // race conditions
+    public String createRefreshToken(Long userId) {
+        String token = newToken();
 
         RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
+        refreshToken.setUser(userRepository.getReferenceById(userId));
         refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(UUID.randomUUID().toString()); // Use UUID as token (opaque)
+        refreshToken.setToken(TokenHasher.sha256Hex(token));
         refreshToken.setRevoked(false);
+        refreshTokenRepository.save(refreshToken);
 
-        return refreshTokenRepository.save(refreshToken);
+        refreshTokenRepository.deleteOldestBeyond(userId, maxSessionsPerUser);
+        return token;
     }
 
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepository.delete(token);
-            throw new RuntimeException("Refresh token was expired. Please make a new signin request");
-        }
-        return token;
+    /**
+     * Exchange a valid refresh token for a new one. Empty if the token is
+     * unknown, expired, revoked or was just rotated by a concurrent request.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String token) {
+        String oldHash = TokenHasher.sha256Hex(token);
+        Instant now = Instant.now();
+        return refreshTokenRepository.findActiveByTokenHash(oldHash, now)
+                .flatMap(refreshToken -> {
+                    String newToken = newToken();
+                    int updated = refreshTokenRepository.rotate(refreshToken.getId(), oldHash,
+                            TokenHasher.sha256Hex(newToken), now.plusMillis(refreshTokenDurationMs));
+                    return updated == 1
+                            ? Optional.of(new Rotation(refreshToken.getUser(), newToken))
+                            : Optional.empty();
+                });
     }
 
     @Transactional
     public int deleteByUserId(Long userId) {
-        return refreshTokenRepository.deleteByUser(userRepository.findById(userId).get());
+        return refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Delete expired and revoked tokens, one bounded batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval-ms:3600000}",
+            initialDelayString = "${jwt.refresh-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+        int batch;
+        do {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = refreshTokenRepository.findPurgeableIds(now, PageRequest.of(0, purgeBatchSize));
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            batch = deleted != null ? deleted : 0;
+            purged += batch;
+        } while (batch == purgeBatchSize);
+
+        if (purged > 0) {
+            log.info("Purged {} expired or revoked refresh tokens", purged);
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * A rotated session: the user and the replacement token for the client.
+     */
+    public record Rotation(User user, String token) {
     }
 }
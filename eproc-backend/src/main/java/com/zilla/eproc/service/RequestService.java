@@ -5,15 +5,22 @@ import com.zilla.eproc.exception.ForbiddenException;
 import com.zilla.eproc.exception.ResourceNotFoundException;
 import com.zilla.eproc.model.*;
 import com.zilla.eproc.repository.*;
+import com.zilla.eproc.security.AuthenticatedUser;
+import com.zilla.eproc.util.ETags;
+import com.zilla.eproc.util.MaterialNameNormalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Year;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -31,61 +38,99 @@ public class RequestService {
         private final UserRepository userRepository;
         private final RequestAuditLogRepository auditLogRepository;
         private final MaterialRepository materialRepository;
+        private final ProjectAssignmentRepository projectAssignmentRepository;
         private final DuplicateDetectionService duplicateDetectionService;
+        private final ReferenceCodeService referenceCodeService;
+        private final DashboardCounterService dashboardCounterService;
+        private final MaterialNameIndex materialNameIndex;
+        private final ProjectSecurityService projectSecurityService;
+        private final OptimisticLockRetry optimisticLockRetry;
+
+        private static final int MAX_PAGE_SIZE = 100;
+
+        private static final List<ProjectRole> REQUESTER_ROLES = List.of(
+                        ProjectRole.PROJECT_LEAD_ENGINEER,
+                        ProjectRole.PROJECT_SITE_ENGINEER,
+                        ProjectRole.PROJECT_CONSULTANT_ENGINEER);
 
         /**
          * Create multiple requests at once.
+         * Projects, sites, assignments and duplicate candidates are resolved for the
+         * whole batch up front (one query each), and the requests are persisted with
+         * JDBC batch inserts.
          */
         @Transactional
         public List<RequestResponseDTO> createRequests(List<CreateRequestDTO> dtos, String userEmail) {
                 log.info("Creating {} requests by user {}", dtos.size(), userEmail);
 
-                User requester = userRepository.findByEmail(userEmail)
+                AuthenticatedUser requester = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-                List<Request> requests = new ArrayList<>();
-                Set<String> usedBoqCodes = new HashSet<>();
+                Set<Long> projectIds = dtos.stream().map(CreateRequestDTO::getProjectId).collect(Collectors.toSet());
+                Set<Long> siteIds = dtos.stream().map(CreateRequestDTO::getSiteId).collect(Collectors.toSet());
 
+                Map<Long, Project> projects = projectRepository.findAllById(projectIds).stream()
+                                .collect(Collectors.toMap(Project::getId, p -> p));
+                Map<Long, Site> sites = siteRepository.findAllById(siteIds).stream()
+                                .collect(Collectors.toMap(Site::getId, s -> s));
+                Set<Long> assignedProjectIds = new HashSet<>(projectAssignmentRepository
+                                .findActiveProjectIdsByUserIdAndRoles(requester.getId(), projectIds, REQUESTER_ROLES));
+
+                // Validate every request before running any duplicate checks
                 for (CreateRequestDTO dto : dtos) {
-                        Request request = createSingleRequest(dto, requester, usedBoqCodes);
+                        if (!projects.containsKey(dto.getProjectId())) {
+                                throw new ResourceNotFoundException("Project not found with ID: " + dto.getProjectId());
+                        }
+                        if (!assignedProjectIds.contains(dto.getProjectId()) && requester.getRole() != Role.OWNER) {
+                                throw new ForbiddenException("You are not assigned to this project");
+                        }
+                        if (!sites.containsKey(dto.getSiteId())) {
+                                throw new ResourceNotFoundException("Site not found");
+                        }
+                }
+
+                // DUPLICATE DETECTION: one set-based lookup for the whole batch
+                List<DuplicateDetectionService.DuplicateCheck> checks = dtos.stream()
+                                .map(dto -> new DuplicateDetectionService.DuplicateCheck(
+                                                dto.getSiteId(),
+                                                dto.getItems().stream()
+                                                                .map(CreateMaterialItemDTO::getName)
+                                                                .distinct()
+                                                                .collect(Collectors.toList()),
+                                                dto.getPlannedStartDate(),
+                                                dto.getPlannedEndDate()))
+                                .collect(Collectors.toList());
+                List<List<DuplicateWarningDTO>> duplicates = duplicateDetectionService
+                                .findPotentialDuplicatesForBatch(checks);
+
+                List<Request> requests = new ArrayList<>();
+                User createdBy = requester.toEntity(userRepository);
+
+                for (int i = 0; i < dtos.size(); i++) {
+                        CreateRequestDTO dto = dtos.get(i);
+                        Request request = createSingleRequest(dto, createdBy,
+                                        projects.get(dto.getProjectId()),
+                                        sites.get(dto.getSiteId()),
+                                        duplicates.get(i));
                         requests.add(request);
                 }
 
-                // Save all requests
+                // Save all requests (batched inserts for requests, materials and audit logs)
                 requests = requestRepository.saveAll(requests);
+                dashboardCounterService.recordCreated(requests);
+                materialNameIndex.addAll(requests);
 
                 log.info("Created {} requests successfully", requests.size());
 
-                return requests.stream()
-                                .map(r -> mapToResponseDTO(r, true))
-                                .collect(Collectors.toList());
+                return mapToResponseDTOs(requests, true);
         }
 
         /**
-         * Create a single request.
+         * Create a single request from pre-resolved project, site and duplicate
+         * warnings.
          */
-        private Request createSingleRequest(CreateRequestDTO dto, User requester, Set<String> usedBoqCodes) {
-                // Validate project access
-                Project project = projectRepository.findById(dto.getProjectId())
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Project not found with ID: " + dto.getProjectId()));
-
-                boolean isAssigned = project.getTeamAssignments().stream()
-                                .anyMatch(assignment -> Boolean.TRUE.equals(assignment.getIsActive())
-                                                && assignment.getUser() != null
-                                                && assignment.getUser().getId().equals(requester.getId())
-                                                && (assignment.getRole() == ProjectRole.PROJECT_LEAD_ENGINEER
-                                                                || assignment.getRole() == ProjectRole.PROJECT_SITE_ENGINEER
-                                                                || assignment.getRole() == ProjectRole.PROJECT_CONSULTANT_ENGINEER));
-
-                if (!isAssigned && requester.getRole() != Role.OWNER) {
-                        throw new ForbiddenException("You are not assigned to this project");
-                }
-
-                // Get site
-                Site site = siteRepository.findById(dto.getSiteId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Site not found"));
-
+        private Request createSingleRequest(CreateRequestDTO dto, User requester, Project project, Site site,
+                        List<DuplicateWarningDTO> potentialDuplicates) {
                 // Determine priority from emergency flag
                 Priority priority = Boolean.TRUE.equals(dto.getEmergencyFlag()) ? Priority.HIGH : Priority.NORMAL;
 
@@ -102,24 +147,6 @@ public class RequestService {
                                 .additionalDetails(dto.getAdditionalDetails())
                                 .build();
 
-                // Generate BOQ reference code
-                String boqCode = generateBoqReferenceCode(usedBoqCodes);
-                request.setBoqReferenceCode(boqCode);
-                usedBoqCodes.add(boqCode);
-
-                // DUPLICATE DETECTION: Check for overlapping requests
-                List<String> materialNames = dto.getItems().stream()
-                                .map(CreateMaterialItemDTO::getName)
-                                .distinct()
-                                .collect(Collectors.toList());
-
-                List<DuplicateWarningDTO> potentialDuplicates = duplicateDetectionService
-                                .findPotentialDuplicates(
-                                                dto.getSiteId(),
-                                                materialNames,
-                                                dto.getPlannedStartDate(),
-                                                dto.getPlannedEndDate());
-
                 if (!potentialDuplicates.isEmpty()) {
                         // If duplicates found and no explanation provided, throw exception
                         if (dto.getDuplicateExplanation() == null ||
@@ -140,6 +167,9 @@ public class RequestService {
                         request.setDuplicateOfRequestId(potentialDuplicates.get(0).getRequestId());
                 }
 
+                // Allocate BOQ reference code
+                request.setBoqReferenceCode(referenceCodeService.nextBoqReferenceCode());
+
                 // Create materials
                 List<Material> materials = dto.getItems().stream()
                                 .map(itemDto -> createMaterialFromDTO(itemDto, request))
@@ -160,25 +190,6 @@ public class RequestService {
                 return request;
         }
 
-        /**
-         * Generate unique BOQ reference code in format: BOQ-{YEAR}-{SEQUENCE}
-         * 
-         * @param usedBoqCodes Set of codes already generated in this transaction
-         */
-        private String generateBoqReferenceCode(Set<String> usedBoqCodes) {
-                int currentYear = Year.now().getValue();
-                int sequence = 1;
-                String boqCode;
-
-                // Find next available sequence number for this year
-                do {
-                        boqCode = String.format("BOQ-%d-%03d", currentYear, sequence);
-                        sequence++;
-                } while (requestRepository.existsByBoqReferenceCode(boqCode) || usedBoqCodes.contains(boqCode));
-
-                return boqCode;
-        }
-
         /**
          * Create Material entity from DTO.
          */
@@ -206,15 +217,14 @@ public class RequestService {
                                                 "Request not found with ID: " + requestId));
 
                 // Authorization check
-                User requester = userRepository.findByEmail(userEmail)
+                AuthenticatedUser requester = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 boolean isProjectOwner = request.getProject().getOwner() != null
                                 && request.getProject().getOwner().getId().equals(requester.getId());
                 boolean isCreator = request.getCreatedBy().getId().equals(requester.getId());
-                boolean hasActiveAssignment = request.getProject().getTeamAssignments().stream()
-                                .anyMatch(a -> a.getUser().getId().equals(requester.getId())
-                                                && Boolean.TRUE.equals(a.getIsActive()));
+                boolean hasActiveAssignment = !isProjectOwner && isCreator
+                                && projectSecurityService.isActiveMember(requester.getId(), request.getProject().getId());
 
                 if (!isProjectOwner && !(isCreator && hasActiveAssignment)) {
                         throw new ForbiddenException("You do not have permission to view this request");
@@ -223,19 +233,80 @@ public class RequestService {
                 return mapToResponseDTO(request, true);
         }
 
+        /**
+         * ETag of {@link #getMyRequests(String)}, computed without loading
+         * the requests.
+         */
+        @Transactional(readOnly = true)
+        public String getMyRequestsETag(String userEmail) {
+                AuthenticatedUser requester = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                return ETags.of(requestRepository.findVersionByCreatedBy(requester.getId()),
+                                "requests-user", requester.getId());
+        }
+
+        /**
+         * ETag of {@link #getProjectRequests(Long, String)}.
+         */
+        @Transactional(readOnly = true)
+        public String getProjectRequestsETag(Long projectId, String userEmail) {
+                AuthenticatedUser requester = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                ProjectRepository.ProjectOwnership ownership = projectRepository.findOwnershipById(projectId)
+                                .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
+
+                if (!requester.getId().equals(ownership.getOwnerId())) {
+                        throw new ForbiddenException("Only project owner can view all requests");
+                }
+
+                return ETags.of(requestRepository.findVersionByProject(projectId), "requests-project", projectId);
+        }
+
+        /**
+         * ETag of {@link #getPendingRequests(String)}.
+         */
+        @Transactional(readOnly = true)
+        public String getPendingRequestsETag(String userEmail) {
+                AuthenticatedUser owner = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                if (owner.getRole() != Role.OWNER) {
+                        throw new ForbiddenException("Only project owners can view pending requests");
+                }
+
+                return ETags.of(requestRepository.findVersionByStatusAndProjectOwner(RequestStatus.PENDING,
+                                owner.getId()), "requests-pending", owner.getId());
+        }
+
+        /**
+         * ETag of {@link #getAllManagerRequests(String)}.
+         */
+        @Transactional(readOnly = true)
+        public String getAllManagerRequestsETag(String userEmail) {
+                AuthenticatedUser owner = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                if (owner.getRole() != Role.OWNER) {
+                        throw new ForbiddenException("Only project owners can view requests");
+                }
+
+                return ETags.of(requestRepository.findVersionByProjectOwner(owner.getId()), "requests-owner",
+                                owner.getId());
+        }
+
         /**
          * Get all requests created by the current user.
          */
         @Transactional(readOnly = true)
         public List<RequestResponseDTO> getMyRequests(String userEmail) {
-                User requester = userRepository.findByEmail(userEmail)
+                AuthenticatedUser requester = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 List<Request> requests = requestRepository.findByCreatedByIdOrderByCreatedAtDesc(requester.getId());
 
-                return requests.stream()
-                                .map(r -> mapToResponseDTO(r, false))
-                                .collect(Collectors.toList());
+                return mapToResponseDTOs(requests, false);
         }
 
         /**
@@ -243,7 +314,7 @@ public class RequestService {
          */
         @Transactional(readOnly = true)
         public List<RequestResponseDTO> getProjectRequests(Long projectId, String userEmail) {
-                User requester = userRepository.findByEmail(userEmail)
+                AuthenticatedUser requester = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 Project project = projectRepository.findById(projectId)
@@ -256,9 +327,7 @@ public class RequestService {
 
                 List<Request> requests = requestRepository.findByProjectIdOrderByCreatedAtDesc(projectId);
 
-                return requests.stream()
-                                .map(r -> mapToResponseDTO(r, true))
-                                .collect(Collectors.toList());
+                return mapToResponseDTOs(requests, true);
         }
 
         /**
@@ -266,7 +335,7 @@ public class RequestService {
          */
         @Transactional(readOnly = true)
         public List<RequestResponseDTO> getPendingRequests(String userEmail) {
-                User owner = userRepository.findByEmail(userEmail)
+                AuthenticatedUser owner = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 // Only project owners can view pending requests
@@ -277,9 +346,7 @@ public class RequestService {
                 List<Request> requests = requestRepository.findByStatusAndProjectOwnerIdOrderByCreatedAtDesc(
                                 RequestStatus.PENDING, owner.getId());
 
-                return requests.stream()
-                                .map(r -> mapToResponseDTO(r, true))
-                                .collect(Collectors.toList());
+                return mapToResponseDTOs(requests, true);
         }
 
         /**
@@ -287,7 +354,7 @@ public class RequestService {
          */
         @Transactional(readOnly = true)
         public List<RequestResponseDTO> getAllManagerRequests(String userEmail) {
-                User owner = userRepository.findByEmail(userEmail)
+                AuthenticatedUser owner = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 // Only project owners can view all requests
@@ -297,15 +364,152 @@ public class RequestService {
 
                 List<Request> requests = requestRepository.findByProjectOwnerIdOrderByCreatedAtDesc(owner.getId());
 
-                return requests.stream()
-                                .map(r -> mapToResponseDTO(r, true))
-                                .collect(Collectors.toList());
+                return mapToResponseDTOs(requests, true);
+        }
+
+        /**
+         * Page of requests created by the current user.
+         */
+        @Transactional(readOnly = true)
+        public CursorPageDTO<RequestSummaryDTO> getMyRequestsPage(String userEmail, RequestListFilter filter,
+                        String cursor, int limit) {
+                AuthenticatedUser requester = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                int pageSize = clampPageSize(limit);
+
+                List<RequestSummaryDTO> rows = requestRepository.findSummariesByCreatedBy(requester.getId(),
+                                filter.getStatus(), filter.getSiteId(), filter.getPriority(),
+                                filter.getCreatedFrom(), filter.getCreatedTo(),
+                                after != null ? after.getCreatedAt() : null, after != null ? after.getId() : null,
+                                PageRequest.of(0, pageSize + 1));
+
+                return toSummaryPage(rows, pageSize);
+        }
+
+        /**
+         * Page of requests for a project (for project owners).
+         */
+        @Transactional(readOnly = true)
+        public CursorPageDTO<RequestSummaryDTO> getProjectRequestsPage(Long projectId, String userEmail,
+                        RequestListFilter filter, String cursor, int limit) {
+                AuthenticatedUser requester = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                Project project = projectRepository.findById(projectId)
+                                .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
+
+                // Authorization: Only project owner can view all requests
+                if (project.getOwner() == null || !project.getOwner().getId().equals(requester.getId())) {
+                        throw new ForbiddenException("Only project owner can view all requests");
+                }
+
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                int pageSize = clampPageSize(limit);
+
+                List<RequestSummaryDTO> rows = requestRepository.findSummariesByProject(projectId,
+                                filter.getStatus(), filter.getSiteId(), filter.getPriority(),
+                                filter.getCreatedFrom(), filter.getCreatedTo(),
+                                after != null ? after.getCreatedAt() : null, after != null ? after.getId() : null,
+                                PageRequest.of(0, pageSize + 1));
+
+                return toSummaryPage(rows, pageSize);
+        }
+
+        /**
+         * Page of pending requests for projects owned by the current user.
+         * The status filter is fixed to PENDING.
+         */
+        @Transactional(readOnly = true)
+        public CursorPageDTO<RequestSummaryDTO> getPendingRequestsPage(String userEmail, RequestListFilter filter,
+                        String cursor, int limit) {
+                AuthenticatedUser owner = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                // Only project owners can view pending requests
+                if (owner.getRole() != Role.OWNER) {
+                        throw new ForbiddenException("Only project owners can view pending requests");
+                }
+
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                int pageSize = clampPageSize(limit);
+
+                List<RequestSummaryDTO> rows = requestRepository.findSummariesByProjectOwner(owner.getId(),
+                                RequestStatus.PENDING, filter.getSiteId(), filter.getPriority(),
+                                filter.getCreatedFrom(), filter.getCreatedTo(),
+                                after != null ? after.getCreatedAt() : null, after != null ? after.getId() : null,
+                                PageRequest.of(0, pageSize + 1));
+
+                return toSummaryPage(rows, pageSize);
+        }
+
+        /**
+         * Page of requests for all projects owned by the current user.
+         */
+        @Transactional(readOnly = true)
+        public CursorPageDTO<RequestSummaryDTO> getAllManagerRequestsPage(String userEmail, RequestListFilter filter,
+                        String cursor, int limit) {
+                AuthenticatedUser owner = AuthenticatedUser.resolve(userEmail, userRepository)
+                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                // Only project owners can view all requests
+                if (owner.getRole() != Role.OWNER) {
+                        throw new ForbiddenException("Only project owners can view requests");
+                }
+
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                int pageSize = clampPageSize(limit);
+
+                List<RequestSummaryDTO> rows = requestRepository.findSummariesByProjectOwner(owner.getId(),
+                                filter.getStatus(), filter.getSiteId(), filter.getPriority(),
+                                filter.getCreatedFrom(), filter.getCreatedTo(),
+                                after != null ? after.getCreatedAt() : null, after != null ? after.getId() : null,
+                                PageRequest.of(0, pageSize + 1));
+
+                return toSummaryPage(rows, pageSize);
+        }
+
+        private int clampPageSize(int limit) {
+                return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        }
+
+        private CursorPageDTO<RequestSummaryDTO> toSummaryPage(List<RequestSummaryDTO> rows, int pageSize) {
+                return CursorPageDTO.of(rows, pageSize, r -> new KeysetCursor(r.getCreatedAt(), r.getId()));
         }
 
         /**
          * Map Request entity to response DTO.
          */
         private RequestResponseDTO mapToResponseDTO(Request request, boolean includeMaterials) {
+                return mapToResponseDTOs(List.of(request), includeMaterials).get(0);
+        }
+
+        /**
+         * Map Request entities to response DTOs. The original requests of all
+         * duplicate-flagged rows are loaded with their materials in one query.
+         */
+        List<RequestResponseDTO> mapToResponseDTOs(List<Request> requests, boolean includeMaterials) {
+                Map<Long, Request> originals = new HashMap<>();
+                if (includeMaterials) {
+                        Set<Long> originalIds = requests.stream()
+                                        .filter(r -> Boolean.TRUE.equals(r.getIsDuplicateFlagged()))
+                                        .map(Request::getDuplicateOfRequestId)
+                                        .filter(Objects::nonNull)
+                                        .collect(Collectors.toSet());
+                        if (!originalIds.isEmpty()) {
+                                requestRepository.findWithMaterialsByIdIn(originalIds)
+                                                .forEach(original -> originals.put(original.getId(), original));
+                        }
+                }
+
+                return requests.stream()
+                                .map(r -> mapToResponseDTO(r, includeMaterials, originals))
+                                .collect(Collectors.toList());
+        }
+
+        private RequestResponseDTO mapToResponseDTO(Request request, boolean includeMaterials,
+                        Map<Long, Request> originals) {
                 RequestResponseDTO dto = RequestResponseDTO.builder()
                                 .id(request.getId())
                                 .projectId(request.getProject().getId())
@@ -337,78 +541,75 @@ public class RequestService {
                         dto.setMaterials(materialDTOs);
 
                         // Populate duplicate details if flagged
-                        if (Boolean.TRUE.equals(request.getIsDuplicateFlagged())
-                                        && request.getDuplicateOfRequestId() != null) {
-                                requestRepository.findById(request.getDuplicateOfRequestId())
-                                                .ifPresent(originalRequest -> {
-                                                        dto.setDuplicateOfRequestTitle(originalRequest.getTitle());
-                                                        dto.setDuplicateDetails(new ArrayList<>());
-
-                                                        Set<String> duplicateNames = new HashSet<>();
-
-                                                        // Map original materials for lookup
-                                                        java.util.Map<String, Material> originalMap = originalRequest
-                                                                        .getMaterials().stream()
-                                                                        .collect(Collectors.toMap(
-                                                                                        m -> m.getName().toLowerCase(),
-                                                                                        m -> m,
-                                                                                        (m1, m2) -> m1)); // Handle
-                                                                                                          // potential
-                                                                                                          // duplicates
-                                                                                                          // in original
-
-                                                        for (Material currentMat : request.getMaterials()) {
-                                                                if (currentMat.getName() != null && originalMap
-                                                                                .containsKey(currentMat.getName()
-                                                                                                .toLowerCase())) {
-                                                                        Material originalMat = originalMap
-                                                                                        .get(currentMat.getName()
-                                                                                                        .toLowerCase());
-                                                                        duplicateNames.add(currentMat.getName()
-                                                                                        .toLowerCase());
-
-                                                                        dto.getDuplicateDetails()
-                                                                                        .add(DuplicateMaterialInfoDTO
-                                                                                                        .builder()
-                                                                                                        .materialName(currentMat
-                                                                                                                        .getName())
-                                                                                                        .originalQuantity(
-                                                                                                                        originalMat
-                                                                                                                                        .getQuantity())
-                                                                                                        .originalStartDate(
-                                                                                                                        originalRequest
-                                                                                                                                        .getPlannedStartDate())
-                                                                                                        .originalEndDate(
-                                                                                                                        originalRequest
-                                                                                                                                        .getPlannedEndDate())
-                                                                                                        .currentQuantity(
-                                                                                                                        currentMat
-                                                                                                                                        .getQuantity())
-                                                                                                        .currentStartDate(
-                                                                                                                        request
-                                                                                                                                        .getPlannedStartDate())
-                                                                                                        .currentEndDate(request
-                                                                                                                        .getPlannedEndDate())
-                                                                                                        .build());
-                                                                }
-                                                        }
-
-                                                        // Mark individual materials as duplicate
-                                                        for (MaterialItemResponseDTO matDto : materialDTOs) {
-                                                                if (matDto.getName() != null && duplicateNames.contains(
-                                                                                matDto.getName().toLowerCase())) {
-                                                                        matDto.setIsDuplicate(true);
-                                                                } else {
-                                                                        matDto.setIsDuplicate(false);
-                                                                }
-                                                        }
-                                                });
+                        Request originalRequest = Boolean.TRUE.equals(request.getIsDuplicateFlagged())
+                                        ? originals.get(request.getDuplicateOfRequestId())
+                                        : null;
+                        if (originalRequest != null) {
+                                addDuplicateDetails(dto, request, originalRequest);
                         }
                 }
 
                 return dto;
         }
 
+        /**
+         * Compare a flagged request's materials with those of the request it
+         * duplicates, matching normalized names exactly first and otherwise
+         * by the same similarity rule that flagged the request.
+         */
+        private void addDuplicateDetails(RequestResponseDTO dto, Request request, Request originalRequest) {
+                dto.setDuplicateOfRequestTitle(originalRequest.getTitle());
+                dto.setDuplicateDetails(new ArrayList<>());
+
+                // Map original materials for lookup (first one wins on repeated names)
+                Map<String, Material> originalMap = originalRequest.getMaterials().stream()
+                                .collect(Collectors.toMap(this::normalizedNameOf, m -> m, (m1, m2) -> m1,
+                                                LinkedHashMap::new));
+
+                Set<Long> duplicateMaterialIds = new HashSet<>();
+                for (Material currentMat : request.getMaterials()) {
+                        Material originalMat = currentMat.getName() != null
+                                        ? findOriginalMaterial(originalMap, normalizedNameOf(currentMat))
+                                        : null;
+                        if (originalMat == null) {
+                                continue;
+                        }
+                        duplicateMaterialIds.add(currentMat.getId());
+                        dto.getDuplicateDetails().add(DuplicateMaterialInfoDTO.builder()
+                                        .materialName(currentMat.getName())
+                                        .originalQuantity(originalMat.getQuantity())
+                                        .originalStartDate(originalRequest.getPlannedStartDate())
+                                        .originalEndDate(originalRequest.getPlannedEndDate())
+                                        .currentQuantity(currentMat.getQuantity())
+                                        .currentStartDate(request.getPlannedStartDate())
+                                        .currentEndDate(request.getPlannedEndDate())
+                                        .build());
+                }
+
+                // Mark individual materials as duplicate
+                for (MaterialItemResponseDTO matDto : dto.getMaterials()) {
+                        matDto.setIsDuplicate(duplicateMaterialIds.contains(matDto.getId()));
+                }
+        }
+
+        private Material findOriginalMaterial(Map<String, Material> originalMap, String normalizedName) {
+                Material exact = originalMap.get(normalizedName);
+                if (exact != null) {
+                        return exact;
+                }
+                return originalMap.entrySet().stream()
+                                .filter(entry -> materialNameIndex.isSimilar(normalizedName, entry.getKey()))
+                                .map(Map.Entry::getValue)
+                                .findFirst()
+                                .orElse(null);
+        }
+
+        private String normalizedNameOf(Material material) {
+                return material.getNormalizedName() != null
+                                ? material.getNormalizedName()
+                                : MaterialNameNormalizer.normalize(material.getName());
+        }
+
         /**
          * Map Material entity to DTO.
          */
@@ -437,7 +638,7 @@ public class RequestService {
                 Request request = requestRepository.findById(requestId)
                                 .orElseThrow(() -> new ResourceNotFoundException("Request not found"));
 
-                User user = userRepository.findByEmail(userEmail)
+                AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
                 // Verify access
@@ -473,15 +674,24 @@ public class RequestService {
 
         /**
          * Update material status (approve/reject individual material item).
+         * Decisions on materials of the same request run in parallel; the one
+         * that loses the race on the request's version is retried from fresh
+         * reads (see OptimisticLockRetry).
          */
-        @Transactional
         public MaterialItemResponseDTO updateMaterialStatus(Long requestId, Long materialId,
                         MaterialStatusUpdateDTO dto,
                         String userEmail) {
-                User owner = userRepository.findByEmail(userEmail)
+                return optimisticLockRetry.execute(
+                                () -> applyMaterialStatus(requestId, materialId, dto, userEmail));
+        }
+
+        private MaterialItemResponseDTO applyMaterialStatus(Long requestId, Long materialId,
+                        MaterialStatusUpdateDTO dto,
+                        String userEmail) {
+                AuthenticatedUser owner = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-                Request request = requestRepository.findById(requestId)
+                Request request = requestRepository.findForStatusChangeById(requestId)
                                 .orElseThrow(() -> new ResourceNotFoundException("Request not found"));
 
                 // Only project owner can approve/reject materials
@@ -511,7 +721,7 @@ public class RequestService {
                                 .action("MATERIAL_" + dto.getStatus().name())
                                 .details("Material '" + material.getName() + "' " + dto.getStatus().name().toLowerCase()
                                                 + (dto.getComment() != null ? ": " + dto.getComment() : ""))
-                                .performedBy(owner)
+                                .performedBy(owner.toEntity(userRepository))
                                 .build();
                 auditLogRepository.save(auditLog);
 
@@ -541,6 +751,7 @@ public class RequestService {
                                 .filter(m -> m.getStatus() == MaterialStatus.PENDING)
                                 .count();
                 long totalCount = materials.size();
+                RequestStatus previousStatus = request.getStatus();
 
                 if (pendingCount > 0) {
                         // Any pending material -> Request is PENDING
@@ -561,19 +772,28 @@ public class RequestService {
                 }
 
                 requestRepository.save(request);
+                dashboardCounterService.recordTransition(request, previousStatus, request.getStatus());
         }
 
         /**
          * Update material details (quantity, rate, etc.).
+         * May move a rejected request back to PENDING, so it is retried on
+         * conflicts like {@link #updateMaterialStatus}.
          */
-        @Transactional
         public MaterialItemResponseDTO updateMaterialDetails(Long requestId, Long materialId,
                         UpdateMaterialItemDTO dto,
                         String userEmail) {
-                User user = userRepository.findByEmail(userEmail)
+                return optimisticLockRetry.execute(
+                                () -> applyMaterialDetails(requestId, materialId, dto, userEmail));
+        }
+
+        private MaterialItemResponseDTO applyMaterialDetails(Long requestId, Long materialId,
+                        UpdateMaterialItemDTO dto,
+                        String userEmail) {
+                AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
                                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-                Request request = requestRepository.findById(requestId)
+                Request request = requestRepository.findForStatusChangeById(requestId)
                                 .orElseThrow(() -> new ResourceNotFoundException("Request not found"));
 
                 Material material = materialRepository.findById(materialId)
@@ -588,9 +808,8 @@ public class RequestService {
                 boolean isCreator = request.getCreatedBy().getId().equals(user.getId());
                 boolean isProjectOwner = request.getProject().getOwner() != null
                                 && request.getProject().getOwner().getId().equals(user.getId());
-                boolean hasActiveAssignment = request.getProject().getTeamAssignments().stream()
-                                .anyMatch(a -> a.getUser().getId().equals(user.getId())
-                                                && Boolean.TRUE.equals(a.getIsActive()));
+                boolean hasActiveAssignment = !isProjectOwner && isCreator
+                                && projectSecurityService.isActiveMember(user.getId(), request.getProject().getId());
 
                 if (!isProjectOwner && !(isCreator && hasActiveAssignment)) {
                         throw new ForbiddenException("You don't have permission to update this material");
@@ -622,6 +841,8 @@ public class RequestService {
 
                                 if (!anyRejected) {
                                         request.setStatus(RequestStatus.PENDING);
+                                        dashboardCounterService.recordTransition(request, RequestStatus.REJECTED,
+                                                        RequestStatus.PENDING);
                                 }
                         }
                 }
@@ -634,7 +855,7 @@ public class RequestService {
                                 .request(request)
                                 .action("MATERIAL_UPDATED")
                                 .details("Material '" + material.getName() + "' updated")
-                                .performedBy(user)
+                                .performedBy(user.toEntity(userRepository))
                                 .build();
                 auditLogRepository.save(auditLog);
 
@@ -4,10 +4,10 @@ import com.zilla.eproc.dto.SiteDTO;
 import com.zilla.eproc.model.Project;
 import com.zilla.eproc.model.Site;
 import com.zilla.eproc.model.Role;
-import com.zilla.eproc.model.User;
 import com.zilla.eproc.repository.ProjectRepository;
 import com.zilla.eproc.repository.SiteRepository;
 import com.zilla.eproc.repository.UserRepository;
+import com.zilla.eproc.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,7 +30,7 @@ public class SiteService extends BaseProjectService {
 
     @Transactional(readOnly = true)
     public List<SiteDTO> getAllSites(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        AuthenticatedUser user = AuthenticatedUser.resolve(userEmail, userRepository)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         List<Site> sites;
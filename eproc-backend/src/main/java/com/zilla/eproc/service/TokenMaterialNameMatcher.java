@@ -0,0 +1,27 @@
+package com.zilla.eproc.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Whole-word matcher: names are compared by the words they share.
+ * Stricter than trigrams; does not tolerate spelling variations.
+ */
+@Component
+@ConditionalOnProperty(name = "eproc.duplicate-detection.matcher", havingValue = "token")
+public class TokenMaterialNameMatcher implements MaterialNameMatcher {
+
+    @Override
+    public Set<String> terms(String normalizedName) {
+        Set<String> tokens = new HashSet<>();
+        for (String word : normalizedName.split(" ")) {
+            if (!word.isEmpty()) {
+                tokens.add(word);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,32 @@
+package com.zilla.eproc.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Character trigram matcher in the style of PostgreSQL pg_trgm: every word
+ * is padded with two leading and one trailing space and split into
+ * trigrams. Tolerates word order, extra words and small spelling changes.
+ */
+@Component
+@ConditionalOnProperty(name = "eproc.duplicate-detection.matcher", havingValue = "trigram", matchIfMissing = true)
+public class TrigramMaterialNameMatcher implements MaterialNameMatcher {
+
+    @Override
+    public Set<String> terms(String normalizedName) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : normalizedName.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
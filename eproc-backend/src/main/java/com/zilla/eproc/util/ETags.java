@@ -0,0 +1,61 @@
+package com.zilla.eproc.util;
+
+import com.zilla.eproc.repository.RequestVersionStamp;
+import com.zilla.eproc.repository.VersionStamp;
+import org.springframework.http.CacheControl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * ETags for list endpoints, derived from a {@link VersionStamp} so a
+ * conditional GET can be answered without loading the list.
+ *
+ * Tags are weak: gzip and identity responses share a tag, and Tomcat does
+ * not compress responses that carry a strong one.
+ */
+public final class ETags {
+
+    /**
+     * Lets browsers keep the list but revalidate it on every use; without
+     * it Spring Security marks responses no-store and no conditional GET is
+     * ever sent.
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {
+    }
+
+    /**
+     * Weak ETag for a list scope, e.g. {@code ("requests-owner", ownerId)}.
+     */
+    public static String of(VersionStamp stamp, String scope, Object scopeId) {
+        return "W/\"" + scope + "-" + scopeId + "-" + version(stamp) + "\"";
+    }
+
+    /**
+     * Weak ETag for a request list scope, also covering the rows shown with
+     * each request.
+     */
+    public static String of(RequestVersionStamp stamp, String scope, Object scopeId) {
+        return "W/\"" + scope + "-" + scopeId + "-" + version(stamp)
+                + "-" + millis(stamp.getProjectLastUpdated()) + "-" + millis(stamp.getSiteLastUpdated())
+                + "-" + millis(stamp.getCreatorLastUpdated())
+                + "-" + count(stamp.getOriginalCount()) + "-" + millis(stamp.getOriginalLastUpdated())
+                + "-" + count(stamp.getOriginalMaterialCount())
+                + "-" + millis(stamp.getOriginalMaterialLastUpdated()) + "\"";
+    }
+
+    private static String version(VersionStamp stamp) {
+        return count(stamp.getRowCount()) + "-" + millis(stamp.getLastUpdated())
+                + "-" + count(stamp.getChildCount()) + "-" + millis(stamp.getChildLastUpdated());
+    }
+
+    private static long count(Long count) {
+        return count != null ? count : 0L;
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+}
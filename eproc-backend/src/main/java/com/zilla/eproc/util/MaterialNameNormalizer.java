@@ -0,0 +1,70 @@
+package com.zilla.eproc.util;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes material names for duplicate detection.
+ *
+ * Names are lowercased and punctuation is turned into spaces. A number and
+ * the measurement unit after it become one token with the unit spelled one
+ * way, so "Cement 50kg" and "cement (50 kg bags)" both become "cement 50kg"
+ * while "12mm" and "12 m" stay apart. Packaging words ("bags", "sheets") are
+ * dropped only right after such a quantity; elsewhere they are part of the name
+ * ("Roofing sheets"), as are unit letters without a number ("T bar").
+ *
+ * V28__material_normalized_name.sql applies the same rules in SQL to
+ * backfill existing rows; keep both in sync.
+ */
+public final class MaterialNameNormalizer {
+
+    private static final String PACKAGING = "pcs?|pieces?|nos|bags?|units?|rolls?|sheets?|lengths?|box|boxes|packets?";
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final List<Unit> UNITS = List.of(
+            new Unit("kgs?|kilograms?", "kg"),
+            new Unit("g|grams?", "g"),
+            new Unit("t|tons?|tonnes?", "t"),
+            new Unit("ml", "ml"),
+            new Unit("l|ltrs?|litres?|liters?", "l"),
+            new Unit("mm", "mm"),
+            new Unit("cm", "cm"),
+            new Unit("m2|sqm", "m2"),
+            new Unit("m3|cbm", "m3"),
+            new Unit("m|metres?|meters?", "m"));
+    private static final Pattern PACKAGING_AFTER_QUANTITY = Pattern.compile(
+            "\\b([0-9][a-z0-9]*) (?:" + PACKAGING + ")\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private MaterialNameNormalizer() {
+    }
+
+    /**
+     * Normalized form of a material name, or null for a null name.
+     * Falls back to the lowercased name when nothing alphanumeric remains.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String lower = name.toLowerCase(Locale.ROOT);
+        String normalized = NON_ALPHANUMERIC.matcher(lower).replaceAll(" ");
+        for (Unit unit : UNITS) {
+            normalized = unit.pattern().matcher(normalized).replaceAll("$1" + unit.canonical());
+        }
+        normalized = PACKAGING_AFTER_QUANTITY.matcher(normalized).replaceAll("$1");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.isEmpty() ? lower.trim() : normalized;
+    }
+
+    /**
+     * Spellings of a unit after a number, optionally separated by a space.
+     */
+    private record Unit(Pattern pattern, String canonical) {
+
+        Unit(String spellings, String canonical) {
+            this(Pattern.compile("([0-9]) ?(?:" + spellings + ")\\b"), canonical);
+        }
+    }
+}
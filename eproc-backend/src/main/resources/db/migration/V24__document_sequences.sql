@@ -0,0 +1,23 @@
+-- V24: Counter table for reference code allocation (BOQ codes, PO numbers)
+-- Replaces the existsBy probe loops; nodes reserve blocks of values under a row lock.
+
+CREATE TABLE document_sequences (
+    sequence_name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Seed counters past the codes that already exist
+INSERT INTO document_sequences (sequence_name, next_value)
+SELECT 'BOQ-' || split_part(boq_reference_code, '-', 2),
+       MAX(CAST(split_part(boq_reference_code, '-', 3) AS BIGINT)) + 1
+FROM requests
+WHERE boq_reference_code ~ '^BOQ-[0-9]{4}-[0-9]+$'
+GROUP BY split_part(boq_reference_code, '-', 2);
+
+INSERT INTO document_sequences (sequence_name, next_value)
+SELECT 'PO-' || split_part(po_number, '-', 2),
+       MAX(CAST(split_part(po_number, '-', 3) AS BIGINT)) + 1
+FROM purchase_orders
+WHERE po_number ~ '^PO-[0-9]{4}-[0-9]+$'
+GROUP BY split_part(po_number, '-', 2);
@@ -0,0 +1,8 @@
+-- V25: Pooled sequence ids for requests, materials and audit logs
+-- Hibernate cannot batch inserts for IDENTITY columns. The entities now draw ids
+-- from the existing BIGSERIAL sequences with a pooled optimizer (allocationSize = 50),
+-- which requires the sequence increment to match.
+
+ALTER SEQUENCE requests_id_seq INCREMENT BY 50;
+ALTER SEQUENCE materials_id_seq INCREMENT BY 50;
+ALTER SEQUENCE request_audit_logs_id_seq INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- V26: Indexes backing keyset pagination of request listings on (created_at DESC, id DESC)
+
+CREATE INDEX idx_requests_created_by_keyset ON requests(created_by_id, created_at DESC, id DESC);
+CREATE INDEX idx_requests_project_keyset ON requests(project_id, created_at DESC, id DESC);
@@ -0,0 +1,29 @@
+-- Materialized request counters for dashboards.
+-- One row per (scope, scope id, status); kept up to date by every request
+-- status transition and repaired by a scheduled reconciliation.
+CREATE TABLE dashboard_counters (
+    scope_type VARCHAR(20) NOT NULL,
+    scope_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (scope_type, scope_id, status)
+);
+
+-- Seed from existing requests
+INSERT INTO dashboard_counters (scope_type, scope_id, status, request_count, updated_at)
+SELECT 'PROJECT', project_id, status, COUNT(*), NOW()
+FROM requests
+GROUP BY project_id, status;
+
+INSERT INTO dashboard_counters (scope_type, scope_id, status, request_count, updated_at)
+SELECT 'OWNER', p.owner_id, r.status, COUNT(*), NOW()
+FROM requests r
+JOIN projects p ON p.id = r.project_id
+WHERE p.owner_id IS NOT NULL
+GROUP BY p.owner_id, r.status;
+
+INSERT INTO dashboard_counters (scope_type, scope_id, status, request_count, updated_at)
+SELECT 'CREATOR', created_by_id, status, COUNT(*), NOW()
+FROM requests
+GROUP BY created_by_id, status;
@@ -0,0 +1,45 @@
+-- Normalized material names for duplicate detection.
+-- normalized_name follows MaterialNameNormalizer: lowercase, punctuation to
+-- spaces, a number and its unit joined into one canonical token, packaging
+-- words dropped right after a quantity.
+-- site_id is copied from the parent request so the duplicate lookup is an
+-- index-only scan of (site_id, normalized_name).
+ALTER TABLE materials ADD COLUMN normalized_name VARCHAR(200);
+ALTER TABLE materials ADD COLUMN site_id BIGINT;
+
+UPDATE materials m
+SET site_id = r.site_id
+FROM requests r
+WHERE r.id = m.request_id;
+
+-- Same steps as MaterialNameNormalizer.normalize
+CREATE FUNCTION pg_temp.normalize_material_name(name TEXT) RETURNS TEXT AS $$
+DECLARE
+    normalized TEXT := regexp_replace(lower(name), '[^a-z0-9]+', ' ', 'g');
+BEGIN
+    -- A number and its unit become one token, the unit spelled one way
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:kgs?|kilograms?)\M', '\1kg', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:g|grams?)\M', '\1g', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:t|tons?|tonnes?)\M', '\1t', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:ml)\M', '\1ml', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:l|ltrs?|litres?|liters?)\M', '\1l', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:mm)\M', '\1mm', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:cm)\M', '\1cm', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:m2|sqm)\M', '\1m2', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:m3|cbm)\M', '\1m3', 'g');
+    normalized := regexp_replace(normalized, '([0-9]) ?(?:m|metres?|meters?)\M', '\1m', 'g');
+    -- Packaging words only go right after a quantity
+    normalized := regexp_replace(normalized, '\m([0-9][a-z0-9]*) (?:pcs?|pieces?|nos|bags?|units?|rolls?|sheets?|lengths?|box|boxes|packets?)\M', '\1', 'g');
+    normalized := trim(regexp_replace(normalized, '\s+', ' ', 'g'));
+    RETURN COALESCE(NULLIF(normalized, ''), trim(lower(name)));
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+UPDATE materials
+SET normalized_name = pg_temp.normalize_material_name(name);
+
+ALTER TABLE materials ALTER COLUMN normalized_name SET NOT NULL;
+ALTER TABLE materials ALTER COLUMN site_id SET NOT NULL;
+
+-- Replaces the LOWER(name) scan per site
+CREATE INDEX idx_materials_site_normalized_name ON materials(site_id, normalized_name) INCLUDE (request_id);
@@ -0,0 +1,4 @@
+-- Membership checks ("is this user an active member of this project, in one
+-- of these roles?") are answered by an existence query on this index
+-- instead of loading the project's whole team.
+CREATE INDEX idx_project_assignments_membership ON project_assignments(project_id, user_id, is_active, role);
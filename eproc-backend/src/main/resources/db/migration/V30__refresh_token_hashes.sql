@@ -0,0 +1,9 @@
+-- Refresh tokens are looked up by the SHA-256 hex of the opaque token in the
+-- cookie (see TokenHasher); the token itself is no longer stored.
+DELETE FROM refresh_tokens WHERE revoked OR expiry_date < NOW();
+
+UPDATE refresh_tokens SET token = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+
+-- Session cap per user and the scheduled purge
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens(user_id, id);
+CREATE INDEX idx_refresh_tokens_expiry ON refresh_tokens(expiry_date);
@@ -0,0 +1,4 @@
+-- List endpoints derive their ETags from COUNT(*) and MAX(updated_at) per
+-- scope. Projects and assignments had no update timestamp.
+ALTER TABLE projects ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+ALTER TABLE project_assignments ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT NOW();
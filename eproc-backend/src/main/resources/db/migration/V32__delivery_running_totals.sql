@@ -0,0 +1,25 @@
+-- Running delivered totals, so PO reads and delivery status checks never
+-- load delivery history. total_delivered was created in V22 but never
+-- maintained; it becomes delivered_qty and is backfilled.
+ALTER TABLE purchase_order_items RENAME COLUMN total_delivered TO delivered_qty;
+ALTER TABLE purchase_order_items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE purchase_order_items poi
+SET delivered_qty = COALESCE((SELECT SUM(di.quantity_delivered)
+                              FROM delivery_items di
+                              WHERE di.purchase_order_item_id = poi.id), 0);
+
+-- Ordered and delivered quantity per request across all its PO items
+CREATE TABLE request_delivery_ledger (
+    request_id BIGINT PRIMARY KEY,
+    ordered_qty DECIMAL(15, 3) NOT NULL DEFAULT 0,
+    delivered_qty DECIMAL(15, 3) NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_delivery_ledger_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE
+);
+
+INSERT INTO request_delivery_ledger (request_id, ordered_qty, delivered_qty)
+SELECT request_id, SUM(ordered_qty), SUM(delivered_qty)
+FROM purchase_order_items
+GROUP BY request_id;
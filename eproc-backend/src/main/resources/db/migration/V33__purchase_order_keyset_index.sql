@@ -0,0 +1,6 @@
+-- V33: Index backing keyset pagination of a project's purchase orders on (created_at DESC, id DESC)
+
+CREATE INDEX idx_po_project_keyset ON purchase_orders(project_id, created_at DESC, id DESC);
+
+-- Its project_id prefix serves every lookup the single-column index did
+DROP INDEX IF EXISTS idx_po_project;
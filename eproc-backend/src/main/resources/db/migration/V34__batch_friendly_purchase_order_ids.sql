@@ -0,0 +1,7 @@
+-- V34: Pooled sequence ids for purchase orders and their items
+-- Hibernate cannot batch inserts for IDENTITY columns. As for requests in V25, the
+-- entities draw ids from the existing BIGSERIAL sequences with a pooled optimizer
+-- (allocationSize = 50), which requires the sequence increment to match.
+
+ALTER SEQUENCE purchase_orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE purchase_order_items_id_seq INCREMENT BY 50;
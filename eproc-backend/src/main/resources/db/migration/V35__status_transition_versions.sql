@@ -0,0 +1,8 @@
+-- V35: Version columns for optimistic locking of status transitions
+-- Concurrent approvals of one request's materials, and concurrent deliveries
+-- against one purchase order, now conflict and retry instead of one
+-- transaction recomputing the status from a stale read.
+
+ALTER TABLE requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE materials ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE purchase_orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- V36: Invalidation stamps for node-local caches
+-- Each node compares a cache's stamp at most once per check interval
+-- (eproc.auth.cache-stamp-check-ms) and clears the cache when it moved, so a
+-- deactivation or revoked assignment made on one node reaches the others
+-- without waiting out the cache TTL.
+
+CREATE TABLE cache_stamps (
+    name VARCHAR(50) PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO cache_stamps (name, version) VALUES ('users', 0), ('project_access', 0);
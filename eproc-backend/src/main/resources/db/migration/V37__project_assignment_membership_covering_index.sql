@@ -0,0 +1,7 @@
+-- V37: Covering membership index
+-- The project access cache reads role, state and dates of one assignment.
+-- Carrying the dates in the membership index lets that lookup be answered
+-- from the index alone.
+DROP INDEX IF EXISTS idx_project_assignments_membership;
+CREATE INDEX idx_project_assignments_membership ON project_assignments(project_id, user_id, is_active, role)
+    INCLUDE (start_date, end_date);
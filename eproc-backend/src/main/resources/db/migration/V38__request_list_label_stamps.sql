@@ -0,0 +1,5 @@
+-- V38: Update timestamps for the names shown in request lists
+-- Request list ETags cover the project, site and creator of each request.
+-- Sites and users had no update timestamp.
+ALTER TABLE sites ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+ALTER TABLE users ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT NOW();
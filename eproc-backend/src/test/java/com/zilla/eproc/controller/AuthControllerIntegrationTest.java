@@ -14,8 +14,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -130,9 +132,13 @@ class AuthControllerIntegrationTest {
                                 .password("password123")
                                 .build();
 
-                mockMvc.perform(post("/api/auth/login")
+                MvcResult login = mockMvc.perform(post("/api/auth/login")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(loginRequest)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(login))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.email", is("login@test.com")))
                                 .andExpect(jsonPath("$.role", is("OWNER")));
@@ -159,9 +165,13 @@ class AuthControllerIntegrationTest {
                                 .password("wrongpassword")
                                 .build();
 
-                mockMvc.perform(post("/api/auth/login")
+                MvcResult login = mockMvc.perform(post("/api/auth/login")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(loginRequest)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(login))
                                 .andExpect(status().isBadRequest())
                                 .andExpect(jsonPath("$.message", containsString("Invalid email or password")));
         }
@@ -0,0 +1,183 @@
+package com.zilla.eproc.controller;
+
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.repository.*;
+import com.zilla.eproc.security.JwtUtil;
+import com.zilla.eproc.service.DashboardCounterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for dashboard counters and their reconciliation.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class DashboardControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private ProjectAssignmentRepository projectAssignmentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private DashboardCounterRepository dashboardCounterRepository;
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String engineerToken;
+    private String ownerToken;
+    private User engineer;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        User owner = saveUser("owner@dash.test", Role.OWNER);
+        ownerToken = jwtUtil.generateToken(owner.getEmail(), Role.OWNER.name());
+
+        engineer = saveUser("eng@dash.test", Role.ENGINEER);
+        engineerToken = jwtUtil.generateToken(engineer.getEmail(), Role.ENGINEER.name());
+
+        Project active = saveProject("Active Project", owner, ProjectStatus.ACTIVE);
+        saveProject("Completed Project", owner, ProjectStatus.COMPLETED);
+
+        projectAssignmentRepository.save(ProjectAssignment.builder()
+                .project(active)
+                .user(engineer)
+                .role(ProjectRole.PROJECT_SITE_ENGINEER)
+                .startDate(LocalDate.now())
+                .isActive(true)
+                .build());
+
+        Site site = new Site();
+        site.setProject(active);
+        site.setName("Dashboard Site");
+        site.setLocation("Loc");
+        site.setIsActive(true);
+        site = siteRepository.save(site);
+
+        saveRequest(active, site, engineer, RequestStatus.PENDING, "DASH-1");
+        saveRequest(active, site, engineer, RequestStatus.PENDING, "DASH-2");
+        saveRequest(active, site, engineer, RequestStatus.APPROVED, "DASH-3");
+        saveRequest(active, site, engineer, RequestStatus.REJECTED, "DASH-4");
+
+        // Requests were inserted directly, so build their counters from scratch
+        dashboardCounterService.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        requestRepository.deleteAll();
+        dashboardCounterRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        siteRepository.deleteAll();
+        projectAssignmentRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void engineerDashboard_countsRequestsByStatus() throws Exception {
+        mockMvc.perform(get("/api/dashboard/engineer")
+                .header("Authorization", "Bearer " + engineerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assignedProjectName", is("Active Project")))
+                .andExpect(jsonPath("$.ownerEmail", is("owner@dash.test")))
+                .andExpect(jsonPath("$.pendingRequests", is(2)))
+                .andExpect(jsonPath("$.approvedRequests", is(1)))
+                .andExpect(jsonPath("$.rejectedRequests", is(1)))
+                .andExpect(jsonPath("$.totalRequests", is(4)));
+    }
+
+    @Test
+    void managerDashboard_countsProjectsRequestsAndTeam() throws Exception {
+        mockMvc.perform(get("/api/dashboard/manager")
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeProjects", is(1)))
+                .andExpect(jsonPath("$.completedProjects", is(1)))
+                .andExpect(jsonPath("$.totalProjects", is(2)))
+                .andExpect(jsonPath("$.pendingRequests", is(2)))
+                .andExpect(jsonPath("$.approvedRequests", is(1)))
+                .andExpect(jsonPath("$.rejectedRequests", is(1)))
+                .andExpect(jsonPath("$.assignedEngineers", is(1)))
+                .andExpect(jsonPath("$.availableEngineers", is(1)));
+    }
+
+    @Test
+    void reconcile_correctsDriftedCounters() {
+        DashboardCounter.Key pending = new DashboardCounter.Key(
+                CounterScope.CREATOR, engineer.getId(), RequestStatus.PENDING);
+        DashboardCounter counter = dashboardCounterRepository.findById(pending).orElseThrow();
+        counter.setRequestCount(7L);
+        dashboardCounterRepository.save(counter);
+
+        DashboardCounterService.ReconciliationReport report = dashboardCounterService.reconcile();
+
+        assertThat(report.getCountersCorrected()).isEqualTo(1);
+        assertThat(report.getTotalDrift()).isEqualTo(5);
+        assertThat(dashboardCounterRepository.findById(pending).orElseThrow().getRequestCount()).isEqualTo(2L);
+        assertThat(dashboardCounterService.reconcile().getCountersCorrected()).isZero();
+    }
+
+    private Project saveProject(String name, User owner, ProjectStatus status) {
+        Project project = new Project();
+        project.setName(name);
+        project.setOwner(owner);
+        project.setStatus(status);
+        return projectRepository.save(project);
+    }
+
+    private void saveRequest(Project project, Site site, User creator, RequestStatus status, String code) {
+        requestRepository.save(Request.builder()
+                .project(project)
+                .site(site)
+                .createdBy(creator)
+                .title("Request " + code)
+                .status(status)
+                .boqReferenceCode(code)
+                .build());
+    }
+
+    private User saveUser(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("password"));
+        user.setName(role.name());
+        user.setRole(role);
+        user.setActive(true);
+        return userRepository.save(user);
+    }
+}
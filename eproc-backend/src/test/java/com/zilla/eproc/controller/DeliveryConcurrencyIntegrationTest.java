@@ -0,0 +1,209 @@
+package com.zilla.eproc.controller;
+
+import com.zilla.eproc.dto.CreateDeliveryDTO;
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.repository.*;
+import com.zilla.eproc.service.DashboardCounterService;
+import com.zilla.eproc.service.DeliveryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two deliveries against the same purchase order, each completing a
+ * different item. The second commits while the first is in flight; the
+ * first must conflict on the PO's version and, retried from fresh reads,
+ * close the PO.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DeliveryConcurrencyIntegrationTest {
+
+    @Autowired
+    private DeliveryService deliveryService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private ProjectAssignmentRepository projectAssignmentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+    @Autowired
+    private RequestDeliveryLedgerRepository requestDeliveryLedgerRepository;
+    @Autowired
+    private DashboardCounterRepository dashboardCounterRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoSpyBean
+    private DashboardCounterService dashboardCounterService;
+
+    private User engineer;
+    private List<Request> requests;
+    private PurchaseOrder po;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        User owner = saveUser("owner@race.test", Role.OWNER);
+        engineer = saveUser("eng@race.test", Role.ENGINEER);
+
+        Project project = new Project();
+        project.setName("Race Project");
+        project.setOwner(owner);
+        project.setStatus(ProjectStatus.ACTIVE);
+        project = projectRepository.save(project);
+
+        projectAssignmentRepository.save(ProjectAssignment.builder()
+                .project(project)
+                .user(engineer)
+                .role(ProjectRole.PROJECT_SITE_ENGINEER)
+                .startDate(LocalDate.now())
+                .isActive(true)
+                .build());
+
+        Site site = new Site();
+        site.setProject(project);
+        site.setName("Race Site");
+        site.setLocation("Loc");
+        site.setIsActive(true);
+        site = siteRepository.save(site);
+
+        requests = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            requests.add(Request.builder()
+                    .project(project)
+                    .site(site)
+                    .createdBy(engineer)
+                    .title("Race request " + i)
+                    .boqReferenceCode("BOQ-RACE-" + i)
+                    .status(RequestStatus.ORDERED)
+                    .build());
+        }
+        requests = requestRepository.saveAll(requests);
+
+        po = PurchaseOrder.builder()
+                .poNumber("PO-RACE-1")
+                .project(project)
+                .createdBy(owner)
+                .build();
+        for (Request request : requests) {
+            po.getItems().add(PurchaseOrderItem.builder()
+                    .purchaseOrder(po)
+                    .request(request)
+                    .materialDisplayName(request.getTitle())
+                    .orderedQty(BigDecimal.TEN)
+                    .unit("bags")
+                    .unitPrice(BigDecimal.valueOf(18000))
+                    .totalPrice(BigDecimal.valueOf(180000))
+                    .build());
+            requestDeliveryLedgerRepository.save(RequestDeliveryLedger.builder()
+                    .requestId(request.getId())
+                    .orderedQty(BigDecimal.TEN)
+                    .build());
+        }
+        po = purchaseOrderRepository.save(po);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        deliveryRepository.deleteAll();
+        purchaseOrderRepository.deleteAll();
+        requestDeliveryLedgerRepository.deleteAll();
+        requestRepository.deleteAll();
+        dashboardCounterRepository.deleteAll();
+        siteRepository.deleteAll();
+        projectAssignmentRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void recordDelivery_losingARace_isRetriedAndClosesThePurchaseOrder() throws Exception {
+        CreateDeliveryDTO first = deliveryOf(po.getItems().get(0));
+        CreateDeliveryDTO second = deliveryOf(po.getItems().get(1));
+
+        // The first delivery has written its items when the second one runs and commits
+        AtomicBoolean raced = new AtomicBoolean();
+        DashboardCounterService counters = AopTestUtils.getUltimateTargetObject(dashboardCounterService);
+        try (ExecutorService competitor = Executors.newSingleThreadExecutor()) {
+            doAnswer(invocation -> {
+                if (raced.compareAndSet(false, true)) {
+                    competitor.submit(() -> deliveryService.recordDelivery(second, engineer.getEmail()))
+                            .get(30, TimeUnit.SECONDS);
+                }
+                return invocation.callRealMethod();
+            }).when(counters).recordTransitions(any());
+
+            deliveryService.recordDelivery(first, engineer.getEmail());
+        }
+
+        // First attempt, competing delivery, retry
+        verify(counters, atLeast(3)).recordTransitions(any());
+        assertThat(deliveryRepository.count()).isEqualTo(2);
+        assertThat(purchaseOrderRepository.findById(po.getId()).orElseThrow().getStatus())
+                .isEqualTo(PurchaseOrderStatus.CLOSED);
+        assertThat(requestRepository.findAllById(requests.stream().map(Request::getId).toList()))
+                .extracting(Request::getStatus)
+                .containsOnly(RequestStatus.DELIVERED);
+        assertThat(requestDeliveryLedgerRepository.findAll())
+                .extracting(RequestDeliveryLedger::getDeliveredQty)
+                .allMatch(delivered -> delivered.compareTo(BigDecimal.TEN) == 0);
+        // Each item was written once; locking the PO leaves the items' versions alone
+        assertThat(purchaseOrderRepository.findWithItemsById(po.getId()).orElseThrow().getItems())
+                .extracting(PurchaseOrderItem::getVersion)
+                .containsOnly(1L);
+    }
+
+    private CreateDeliveryDTO deliveryOf(PurchaseOrderItem item) {
+        return CreateDeliveryDTO.builder()
+                .purchaseOrderId(po.getId())
+                .items(List.of(CreateDeliveryDTO.DeliveryItemDTO.builder()
+                        .purchaseOrderItemId(item.getId())
+                        .quantityDelivered(BigDecimal.TEN)
+                        .build()))
+                .build();
+    }
+
+    private User saveUser(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("password"));
+        user.setName(role.name());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,162 @@
+package com.zilla.eproc.controller;
+
+import com.zilla.eproc.dto.CreatePurchaseOrderDTO;
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.repository.*;
+import com.zilla.eproc.service.ProcurementService;
+import com.zilla.eproc.service.ReferenceCodeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A purchase order for an approved request, while the request is rejected
+ * by another transaction after it was read. The bulk move to ORDERED must
+ * not overwrite the rejection; retried from fresh reads, the order is
+ * refused.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcurementConcurrencyIntegrationTest {
+
+    @Autowired
+    private ProcurementService procurementService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    @Autowired
+    private RequestDeliveryLedgerRepository requestDeliveryLedgerRepository;
+    @Autowired
+    private DashboardCounterRepository dashboardCounterRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoSpyBean
+    private ReferenceCodeService referenceCodeService;
+
+    private User owner;
+    private Project project;
+    private Request request;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        owner = saveUser("owner@order-race.test", Role.OWNER);
+        User engineer = saveUser("eng@order-race.test", Role.ENGINEER);
+
+        project = new Project();
+        project.setName("Order Race Project");
+        project.setOwner(owner);
+        project.setStatus(ProjectStatus.ACTIVE);
+        project = projectRepository.save(project);
+
+        Site site = new Site();
+        site.setProject(project);
+        site.setName("Order Race Site");
+        site.setLocation("Loc");
+        site.setIsActive(true);
+        site = siteRepository.save(site);
+
+        request = requestRepository.save(Request.builder()
+                .project(project)
+                .site(site)
+                .createdBy(engineer)
+                .title("Order race request")
+                .boqReferenceCode("BOQ-ORDER-RACE")
+                .status(RequestStatus.APPROVED)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        purchaseOrderRepository.deleteAll();
+        requestDeliveryLedgerRepository.deleteAll();
+        requestRepository.deleteAll();
+        dashboardCounterRepository.deleteAll();
+        siteRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createPurchaseOrder_requestRejectedMeanwhile_isNotOrdered() throws Exception {
+        CreatePurchaseOrderDTO dto = CreatePurchaseOrderDTO.builder()
+                .projectId(project.getId())
+                .vendorName("Vendor")
+                .items(List.of(CreatePurchaseOrderDTO.PurchaseOrderItemDTO.builder()
+                        .requestId(request.getId())
+                        .materialDisplayName("Cement")
+                        .orderedQty(BigDecimal.TEN)
+                        .unit("bags")
+                        .unitPrice(BigDecimal.valueOf(18000))
+                        .build()))
+                .build();
+
+        // The request has been read as APPROVED when the rejection commits
+        AtomicBoolean raced = new AtomicBoolean();
+        ReferenceCodeService codes = AopTestUtils.getUltimateTargetObject(referenceCodeService);
+        try (ExecutorService competitor = Executors.newSingleThreadExecutor()) {
+            doAnswer(invocation -> {
+                if (raced.compareAndSet(false, true)) {
+                    competitor.submit(() -> {
+                        Request rejected = requestRepository.findById(request.getId()).orElseThrow();
+                        rejected.setStatus(RequestStatus.REJECTED);
+                        requestRepository.save(rejected);
+                    }).get(30, TimeUnit.SECONDS);
+                }
+                return invocation.callRealMethod();
+            }).when(codes).nextPoNumber();
+
+            assertThatThrownBy(() -> procurementService.createPurchaseOrder(dto, owner.getEmail()))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("is not approved for ordering");
+        }
+
+        // First attempt conflicted, the retry saw the rejection
+        verify(codes, atLeast(2)).nextPoNumber();
+        assertThat(requestRepository.findById(request.getId()).orElseThrow().getStatus())
+                .isEqualTo(RequestStatus.REJECTED);
+        assertThat(purchaseOrderRepository.count()).isZero();
+        assertThat(requestDeliveryLedgerRepository.count()).isZero();
+    }
+
+    private User saveUser(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("password"));
+        user.setName(role.name());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,380 @@
+package com.zilla.eproc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zilla.eproc.dto.CreateDeliveryDTO;
+import com.zilla.eproc.dto.CreatePurchaseOrderDTO;
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.repository.*;
+import com.zilla.eproc.security.JwtUtil;
+import com.zilla.eproc.support.QueryBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Query-count budgets for hot endpoints. The number of SELECTs must not grow
+ * with the number of rows returned or the size of the payload.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class QueryBudgetIntegrationTest {
+
+    private static final int REQUEST_COUNT = 100;
+    private static final int DELIVERY_ITEM_COUNT = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private ProjectAssignmentRepository projectAssignmentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    @Autowired
+    private RequestDeliveryLedgerRepository requestDeliveryLedgerRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private DashboardCounterRepository dashboardCounterRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String ownerToken;
+    private String engineerToken;
+    private User owner;
+    private User engineer;
+    private Project project;
+    private List<Request> requests;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        owner = saveUser("owner@budget.test", Role.OWNER);
+        ownerToken = jwtUtil.generateToken(owner.getEmail(), Role.OWNER.name());
+
+        engineer = saveUser("eng@budget.test", Role.ENGINEER);
+        engineerToken = jwtUtil.generateToken(engineer.getEmail(), Role.ENGINEER.name());
+
+        project = new Project();
+        project.setName("Budget Project");
+        project.setOwner(owner);
+        project.setStatus(ProjectStatus.ACTIVE);
+        project = projectRepository.save(project);
+
+        projectAssignmentRepository.save(ProjectAssignment.builder()
+                .project(project)
+                .user(engineer)
+                .role(ProjectRole.PROJECT_SITE_ENGINEER)
+                .startDate(LocalDate.now())
+                .isActive(true)
+                .build());
+
+        Site site = new Site();
+        site.setProject(project);
+        site.setName("Budget Site");
+        site.setLocation("Loc");
+        site.setIsActive(true);
+        site = siteRepository.save(site);
+
+        // Inserted directly: intake through the API would flag these as duplicates
+        requests = new ArrayList<>();
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            Request request = Request.builder()
+                    .project(project)
+                    .site(site)
+                    .createdBy(engineer)
+                    .title("Budget request " + i)
+                    .boqReferenceCode("BOQ-BUDGET-" + i)
+                    .build();
+            request.getMaterials().add(Material.builder()
+                    .request(request)
+                    .name("Cement " + i)
+                    .normalizedName("cement " + i)
+                    .siteId(site.getId())
+                    .quantity(BigDecimal.TEN)
+                    .measurementUnit("bags")
+                    .rateEstimate(BigDecimal.valueOf(18000))
+                    .build());
+            requests.add(request);
+        }
+        requests = requestRepository.saveAll(requests);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        purchaseOrderRepository.deleteAll();
+        requestDeliveryLedgerRepository.deleteAll();
+        requestRepository.deleteAll();
+        dashboardCounterRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        siteRepository.deleteAll();
+        projectAssignmentRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getPendingRequests_staysWithinSelectBudget() throws Exception {
+        QueryBudget.assertSelectsAtMost(5, () -> mockMvc.perform(get("/api/requests/pending")
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(REQUEST_COUNT)))
+                .andExpect(jsonPath("$[0].materials", hasSize(1))));
+    }
+
+    @Test
+    void getProjectRequests_staysWithinSelectBudget() throws Exception {
+        QueryBudget.assertSelectsAtMost(6, () -> mockMvc.perform(get("/api/requests/project/" + project.getId())
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(REQUEST_COUNT))));
+    }
+
+    @Test
+    void getMyRequests_staysWithinSelectBudget() throws Exception {
+        QueryBudget.assertSelectsAtMost(5, () -> mockMvc.perform(get("/api/requests/my-requests")
+                .header("Authorization", "Bearer " + engineerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(REQUEST_COUNT))));
+    }
+
+    @Test
+    void recordDelivery_staysWithinSelectBudget() throws Exception {
+        PurchaseOrder po = PurchaseOrder.builder()
+                .poNumber("PO-BUDGET-1")
+                .project(project)
+                .createdBy(owner)
+                .build();
+        for (Request request : requests.subList(0, DELIVERY_ITEM_COUNT)) {
+            po.getItems().add(PurchaseOrderItem.builder()
+                    .purchaseOrder(po)
+                    .request(request)
+                    .materialDisplayName(request.getTitle())
+                    .orderedQty(BigDecimal.TEN)
+                    .unit("bags")
+                    .unitPrice(BigDecimal.valueOf(18000))
+                    .totalPrice(BigDecimal.valueOf(180000))
+                    .build());
+        }
+        po = purchaseOrderRepository.save(po);
+        for (Request request : requests.subList(0, DELIVERY_ITEM_COUNT)) {
+            requestDeliveryLedgerRepository.save(RequestDeliveryLedger.builder()
+                    .requestId(request.getId())
+                    .orderedQty(BigDecimal.TEN)
+                    .build());
+        }
+
+        // Counters exist in a live system; creating them is not part of the budget
+        for (RequestStatus status : List.of(RequestStatus.PENDING, RequestStatus.DELIVERED)) {
+            saveCounter(CounterScope.PROJECT, project.getId(), status);
+            saveCounter(CounterScope.OWNER, owner.getId(), status);
+            saveCounter(CounterScope.CREATOR, engineer.getId(), status);
+        }
+
+        List<CreateDeliveryDTO.DeliveryItemDTO> items = po.getItems().stream()
+                .map(item -> CreateDeliveryDTO.DeliveryItemDTO.builder()
+                        .purchaseOrderItemId(item.getId())
+                        .quantityDelivered(BigDecimal.TEN)
+                        .build())
+                .toList();
+        CreateDeliveryDTO delivery = CreateDeliveryDTO.builder()
+                .purchaseOrderId(po.getId())
+                .items(items)
+                .build();
+
+        QueryBudget.assertSelectsAtMost(8, () -> mockMvc.perform(post("/api/deliveries")
+                .header("Authorization", "Bearer " + engineerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(delivery)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.items", hasSize(DELIVERY_ITEM_COUNT))));
+
+        assertThat(requestRepository.findAllById(requests.subList(0, DELIVERY_ITEM_COUNT).stream()
+                .map(Request::getId).toList()))
+                .extracting(Request::getStatus)
+                .containsOnly(RequestStatus.DELIVERED);
+        assertThat(requestDeliveryLedgerRepository.findAll())
+                .extracting(RequestDeliveryLedger::getDeliveredQty)
+                .allMatch(delivered -> delivered.compareTo(BigDecimal.TEN) == 0);
+        assertThat(purchaseOrderRepository.findById(po.getId()).orElseThrow().getStatus())
+                .isEqualTo(PurchaseOrderStatus.CLOSED);
+        assertThat(dashboardCounterRepository.findById(
+                new DashboardCounter.Key(CounterScope.PROJECT, project.getId(), RequestStatus.DELIVERED))
+                .orElseThrow().getRequestCount())
+                .isEqualTo((long) DELIVERY_ITEM_COUNT);
+    }
+
+    @Test
+    void getProjectPurchaseOrdersPage_staysWithinSelectBudgetAndWalksAllPages() throws Exception {
+        List<PurchaseOrder> pos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            PurchaseOrder po = PurchaseOrder.builder()
+                    .poNumber("PO-BUDGET-" + i)
+                    .project(project)
+                    .createdBy(owner)
+                    .build();
+            for (Request request : requests.subList(2 * i, 2 * i + 2)) {
+                po.getItems().add(PurchaseOrderItem.builder()
+                        .purchaseOrder(po)
+                        .request(request)
+                        .materialDisplayName(request.getTitle())
+                        .orderedQty(BigDecimal.TEN)
+                        .unit("bags")
+                        .unitPrice(BigDecimal.ONE)
+                        .totalPrice(BigDecimal.TEN)
+                        .build());
+            }
+            pos.add(po);
+        }
+        purchaseOrderRepository.saveAll(pos);
+
+        String body = QueryBudget.assertSelectsAtMost(5, () -> mockMvc.perform(
+                get("/api/purchase-orders/project/" + project.getId() + "/page")
+                        .param("limit", "20")
+                        .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(20)))
+                .andExpect(jsonPath("$.items[0].items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].items[0].requestTitle").isNotEmpty())
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString());
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/purchase-orders/project/" + project.getId() + "/page")
+                .param("limit", "20")
+                .param("cursor", cursor)
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(10)))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void createPurchaseOrdersBulk_loadsRequestsOnceAndMarksThemOrdered() throws Exception {
+        List<Request> approved = requests.subList(0, 30);
+        approved.forEach(request -> request.setStatus(RequestStatus.APPROVED));
+        requestRepository.saveAll(approved);
+        for (RequestStatus status : List.of(RequestStatus.APPROVED, RequestStatus.ORDERED)) {
+            saveCounter(CounterScope.PROJECT, project.getId(), status);
+            saveCounter(CounterScope.OWNER, owner.getId(), status);
+            saveCounter(CounterScope.CREATOR, engineer.getId(), status);
+        }
+
+        // Three vendors, ten requests each
+        List<CreatePurchaseOrderDTO> dtos = new ArrayList<>();
+        for (int vendor = 0; vendor < 3; vendor++) {
+            dtos.add(CreatePurchaseOrderDTO.builder()
+                    .projectId(project.getId())
+                    .vendorName("Vendor " + vendor)
+                    .items(approved.subList(10 * vendor, 10 * vendor + 10).stream()
+                            .map(request -> CreatePurchaseOrderDTO.PurchaseOrderItemDTO.builder()
+                                    .requestId(request.getId())
+                                    .materialDisplayName(request.getTitle())
+                                    .orderedQty(BigDecimal.TEN)
+                                    .unit("bags")
+                                    .unitPrice(BigDecimal.valueOf(18000))
+                                    .build())
+                            .toList())
+                    .build());
+        }
+
+        // Sequence and PO-number allocation account for the headroom
+        QueryBudget.assertSelectsAtMost(12, () -> mockMvc.perform(post("/api/purchase-orders/bulk")
+                .header("Authorization", "Bearer " + ownerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].items", hasSize(10))));
+
+        assertThat(requestRepository.findAllById(approved.stream().map(Request::getId).toList()))
+                .extracting(Request::getStatus)
+                .containsOnly(RequestStatus.ORDERED);
+        assertThat(requestDeliveryLedgerRepository.count()).isEqualTo(30);
+        assertThat(dashboardCounterRepository.findById(
+                new DashboardCounter.Key(CounterScope.PROJECT, project.getId(), RequestStatus.ORDERED))
+                .orElseThrow().getRequestCount())
+                .isEqualTo(30L);
+    }
+
+    @Test
+    void createPurchaseOrdersBulk_rejectsWholeBatchWhenOneRequestIsNotApproved() throws Exception {
+        Request approved = requests.get(0);
+        approved.setStatus(RequestStatus.APPROVED);
+        requestRepository.save(approved);
+
+        List<CreatePurchaseOrderDTO> dtos = new ArrayList<>();
+        for (Request request : List.of(approved, requests.get(1))) {
+            dtos.add(CreatePurchaseOrderDTO.builder()
+                    .projectId(project.getId())
+                    .items(List.of(CreatePurchaseOrderDTO.PurchaseOrderItemDTO.builder()
+                            .requestId(request.getId())
+                            .materialDisplayName(request.getTitle())
+                            .orderedQty(BigDecimal.ONE)
+                            .unit("bags")
+                            .unitPrice(BigDecimal.ONE)
+                            .build()))
+                    .build());
+        }
+
+        mockMvc.perform(post("/api/purchase-orders/bulk")
+                .header("Authorization", "Bearer " + ownerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isConflict());
+
+        assertThat(purchaseOrderRepository.count()).isZero();
+        assertThat(requestRepository.findById(approved.getId()).orElseThrow().getStatus())
+                .isEqualTo(RequestStatus.APPROVED);
+    }
+
+    private void saveCounter(CounterScope scope, Long scopeId, RequestStatus status) {
+        dashboardCounterRepository.save(DashboardCounter.builder()
+                .id(new DashboardCounter.Key(scope, scopeId, status))
+                .requestCount(status == RequestStatus.PENDING ? REQUEST_COUNT : 0L)
+                .build());
+    }
+
+    private User saveUser(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("password"));
+        user.setName(role.name());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,217 @@
+package com.zilla.eproc.controller;
+
+import com.zilla.eproc.model.RefreshToken;
+import com.zilla.eproc.model.Role;
+import com.zilla.eproc.model.User;
+import com.zilla.eproc.repository.RefreshTokenRepository;
+import com.zilla.eproc.repository.UserRepository;
+import com.zilla.eproc.service.RefreshTokenService;
+import com.zilla.eproc.util.TokenHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for hashed refresh tokens: rotation, the per-user
+ * session cap, batched purging and the V30 backfill.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class RefreshTokenIntegrationTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        user = new User();
+        user.setEmail("refresh@token.test");
+        user.setPasswordHash(passwordEncoder.encode("password"));
+        user.setName("Refresh User");
+        user.setRole(Role.ENGINEER);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.findByEmail("refresh@token.test").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void rotate_returnsNewToken_andRejectsOldOne() {
+        String token = refreshTokenService.createRefreshToken(user.getId());
+
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(token);
+
+        assertThat(rotation).isPresent();
+        assertThat(rotation.get().token()).isNotEqualTo(token);
+        assertThat(rotation.get().user().getId()).isEqualTo(user.getId());
+        assertThat(refreshTokenRepository.findActiveByTokenHash(TokenHasher.sha256Hex(token), Instant.now()))
+                .isEmpty();
+        assertThat(refreshTokenRepository.findAll())
+                .singleElement()
+                .extracting(RefreshToken::getToken)
+                .isEqualTo(TokenHasher.sha256Hex(rotation.get().token()));
+    }
+
+    @Test
+    void rotate_reusedToken_failsAndKeepsTheRotatedSession() {
+        String token = refreshTokenService.createRefreshToken(user.getId());
+        String rotated = refreshTokenService.rotate(token).orElseThrow().token();
+
+        assertThat(refreshTokenService.rotate(token)).isEmpty();
+        assertThat(refreshTokenService.rotate(rotated)).isPresent();
+    }
+
+    @Test
+    void createRefreshToken_sixthLogin_evictsOldestSession() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tokens.add(refreshTokenService.createRefreshToken(user.getId()));
+        }
+
+        assertThat(refreshTokenRepository.count()).isEqualTo(5);
+        assertThat(refreshTokenService.rotate(tokens.get(0))).isEmpty();
+        for (String token : tokens.subList(1, 6)) {
+            assertThat(refreshTokenService.rotate(token)).isPresent();
+        }
+    }
+
+    @Test
+    void purgeExpired_deletesOnlyExpiredAndRevokedRows_acrossBatches() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            saveToken("expired-" + i, now.minus(1, ChronoUnit.HOURS), false);
+        }
+        saveToken("revoked", now.plus(1, ChronoUnit.DAYS), true);
+        saveToken("valid-0", now.plus(1, ChronoUnit.DAYS), false);
+        saveToken("valid-1", now.plus(1, ChronoUnit.DAYS), false);
+
+        // Two rows per transaction, so the six purgeable rows take three full batches
+        new RefreshTokenService(refreshTokenRepository, userRepository, transactionManager, 60_000, 5, 2)
+                .purgeExpired();
+
+        assertThat(refreshTokenRepository.findAll())
+                .extracting(RefreshToken::getToken)
+                .containsExactlyInAnyOrder(TokenHasher.sha256Hex("valid-0"), TokenHasher.sha256Hex("valid-1"));
+    }
+
+    @Test
+    void v30Backfill_hashesPreMigrationTokens_soTheyStillRotate() throws Exception {
+        // Rows as they were before V30: the raw token in the token column
+        saveRawToken("pre-migration-token", Instant.now().plus(1, ChronoUnit.DAYS), false);
+        saveRawToken("pre-migration-expired", Instant.now().minus(1, ChronoUnit.HOURS), false);
+
+        runV30Backfill();
+
+        assertThat(refreshTokenRepository.findAll())
+                .singleElement()
+                .extracting(RefreshToken::getToken)
+                .isEqualTo(TokenHasher.sha256Hex("pre-migration-token"));
+        assertThat(refreshTokenService.rotate("pre-migration-token")).isPresent();
+    }
+
+    /**
+     * Runs the data statements of V30 against H2, with the PostgreSQL
+     * functions they use defined as aliases with the same semantics.
+     */
+    private void runV30Backfill() throws Exception {
+        String migration = new ClassPathResource("db/migration/V30__refresh_token_hashes.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        List<String> statements = new ArrayList<>();
+        for (String statement : migration.replaceAll("(?m)^--.*$", "").split(";")) {
+            String sql = statement.strip();
+            if (sql.startsWith("DELETE") || sql.startsWith("UPDATE")) {
+                statements.add(sql);
+            }
+        }
+        assertThat(statements).hasSize(2);
+
+        String aliases = RefreshTokenIntegrationTest.class.getName();
+        jdbcTemplate.execute("CREATE ALIAS CONVERT_TO FOR \"" + aliases + ".convertTo\"");
+        jdbcTemplate.execute("CREATE ALIAS SHA256 FOR \"" + aliases + ".sha256\"");
+        jdbcTemplate.execute("CREATE ALIAS ENCODE FOR \"" + aliases + ".encode\"");
+        try {
+            statements.forEach(jdbcTemplate::execute);
+        } finally {
+            jdbcTemplate.execute("DROP ALIAS CONVERT_TO");
+            jdbcTemplate.execute("DROP ALIAS SHA256");
+            jdbcTemplate.execute("DROP ALIAS ENCODE");
+        }
+    }
+
+    /**
+     * PostgreSQL convert_to(text, encoding).
+     */
+    public static byte[] convertTo(String text, String encoding) {
+        return text.getBytes(Charset.forName(encoding.equalsIgnoreCase("UTF8") ? "UTF-8" : encoding));
+    }
+
+    /**
+     * PostgreSQL sha256(bytea).
+     */
+    public static byte[] sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(bytes);
+    }
+
+    /**
+     * PostgreSQL encode(bytea, 'hex').
+     */
+    public static String encode(byte[] bytes, String format) {
+        if (!format.equalsIgnoreCase("hex")) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private void saveToken(String token, Instant expiryDate, boolean revoked) {
+        saveRawToken(TokenHasher.sha256Hex(token), expiryDate, revoked);
+    }
+
+    private void saveRawToken(String storedValue, Instant expiryDate, boolean revoked) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(user);
+        refreshToken.setToken(storedValue);
+        refreshToken.setExpiryDate(expiryDate);
+        refreshToken.setRevoked(revoked);
+        refreshTokenRepository.save(refreshToken);
+    }
+}
@@ -0,0 +1,372 @@
+package com.zilla.eproc.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zilla.eproc.dto.CreateMaterialItemDTO;
+import com.zilla.eproc.dto.CreateRequestDTO;
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.repository.*;
+import com.zilla.eproc.security.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for Request intake and paginated request listings.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RequestControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private ProjectAssignmentRepository projectAssignmentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private MaterialRepository materialRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private DashboardCounterRepository dashboardCounterRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private String engineerToken;
+    private String ownerToken;
+    private Project project;
+    private Site site;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        User owner = saveUser("owner@req.test", Role.OWNER);
+        ownerToken = jwtUtil.generateToken(owner.getEmail(), Role.OWNER.name());
+
+        User engineer = saveUser("eng@req.test", Role.ENGINEER);
+        engineerToken = jwtUtil.generateToken(engineer.getEmail(), Role.ENGINEER.name());
+
+        project = new Project();
+        project.setName("Request Project");
+        project.setOwner(owner);
+        project.setStatus(ProjectStatus.ACTIVE);
+        project = projectRepository.save(project);
+
+        projectAssignmentRepository.save(ProjectAssignment.builder()
+                .project(project)
+                .user(engineer)
+                .role(ProjectRole.PROJECT_SITE_ENGINEER)
+                .startDate(LocalDate.now())
+                .isActive(true)
+                .build());
+
+        site = new Site();
+        site.setProject(project);
+        site.setName("Request Site");
+        site.setLocation("Loc");
+        site.setIsActive(true);
+        site = siteRepository.save(site);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        requestRepository.deleteAll();
+        dashboardCounterRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        siteRepository.deleteAll();
+        projectAssignmentRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createRequests_batch_assignsDistinctBoqCodes() throws Exception {
+        mockMvc.perform(post("/api/requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildRequests(3))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].boqReferenceCode", matchesPattern("BOQ-\\d{4}-\\d{3}")))
+                .andExpect(jsonPath("$[*].boqReferenceCode", hasItem(not(emptyString()))));
+
+        assertThat(requestRepository.findAll())
+                .extracting(Request::getBoqReferenceCode)
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void getMyRequestsPage_followsCursorThroughAllRows() throws Exception {
+        createViaApi(5);
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var call = get("/api/requests/my-requests/page")
+                    .param("limit", "2")
+                    .header("Authorization", "Bearer " + engineerToken);
+            if (cursor != null) {
+                call = call.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(call)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(lessThanOrEqualTo(2))))
+                    .andExpect(jsonPath("$.items[0].materials").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode page = objectMapper.readTree(body);
+            page.get("items").forEach(item -> assertThat(seen.add(item.get("id").asLong())).isTrue());
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(5);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void getPendingRequestsPage_ownerSeesSummariesWithTotals() throws Exception {
+        createViaApi(2);
+
+        mockMvc.perform(get("/api/requests/pending/page")
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].materialCount", is(1)))
+                .andExpect(jsonPath("$.items[0].siteName", is("Request Site")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    void getProjectRequestsPage_filtersByStatus() throws Exception {
+        createViaApi(2);
+
+        mockMvc.perform(get("/api/requests/project/" + project.getId() + "/page")
+                .param("status", "APPROVED")
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", empty()));
+    }
+
+    @Test
+    void getAllRequestsPage_invalidCursor_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/requests/page")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPendingRequests_expandsDuplicateDetailsByNormalizedName() throws Exception {
+        createViaApi(1);
+
+        List<CreateRequestDTO> duplicate = buildRequests(1);
+        duplicate.get(0).getItems().get(0).setName("MATERIAL-0 (bags)");
+        duplicate.get(0).setDuplicateExplanation("Second pour needs more");
+        mockMvc.perform(post("/api/requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].isDuplicateFlagged", is(true)));
+
+        mockMvc.perform(get("/api/requests/pending")
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[?(@.isDuplicateFlagged == true)].duplicateDetails[0].materialName",
+                        contains("MATERIAL-0 (bags)")))
+                .andExpect(jsonPath("$[?(@.isDuplicateFlagged == true)].materials[0].isDuplicate",
+                        contains(true)));
+    }
+
+    @Test
+    void getPendingRequests_expandsDuplicateDetailsForSimilarNames() throws Exception {
+        List<CreateRequestDTO> original = buildRequests(1);
+        original.get(0).getItems().get(0).setName("Portland Cement 50kg");
+        mockMvc.perform(post("/api/requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(original)))
+                .andExpect(status().isCreated());
+
+        List<CreateRequestDTO> duplicate = buildRequests(1);
+        duplicate.get(0).getItems().get(0).setName("Cement 50kg");
+        duplicate.get(0).setDuplicateExplanation("Second pour needs more");
+        mockMvc.perform(post("/api/requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].isDuplicateFlagged", is(true)));
+
+        mockMvc.perform(get("/api/requests/pending")
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.isDuplicateFlagged == true)].duplicateDetails[0].materialName",
+                        contains("Cement 50kg")))
+                .andExpect(jsonPath("$[?(@.isDuplicateFlagged == true)].materials[0].isDuplicate",
+                        contains(true)));
+    }
+
+    @Test
+    void getMyRequests_ifNoneMatch_returnsNotModifiedUntilListChanges() throws Exception {
+        createViaApi(1);
+
+        String eTag = mockMvc.perform(get("/api/requests/my-requests")
+                .header("Authorization", "Bearer " + engineerToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("W/\"")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/requests/my-requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // A different material, so duplicate detection lets it through
+        List<CreateRequestDTO> another = buildRequests(1);
+        another.get(0).getItems().get(0).setName("River sand");
+        mockMvc.perform(post("/api/requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(another)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/requests/my-requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    @Test
+    void getPendingRequests_eTagChangesWithShownNamesAndOriginals() throws Exception {
+        createViaApi(1);
+        List<CreateRequestDTO> duplicate = buildRequests(1);
+        duplicate.get(0).setDuplicateExplanation("Second pour needs more");
+        mockMvc.perform(post("/api/requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].isDuplicateFlagged", is(true)));
+
+        String eTag = pendingRequestsETag();
+
+        site.setName("Renamed Site");
+        siteRepository.save(site);
+        String afterRename = mockMvc.perform(get("/api/requests/pending")
+                .header("Authorization", "Bearer " + ownerToken)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].siteName", is("Renamed Site")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // The original's quantity is shown in the duplicate's details
+        Request original = requestRepository.findAll().stream()
+                .filter(request -> !Boolean.TRUE.equals(request.getIsDuplicateFlagged()))
+                .findFirst().orElseThrow();
+        Material originalMaterial = requestRepository.findWithMaterialsByIdIn(List.of(original.getId()))
+                .get(0).getMaterials().get(0);
+        originalMaterial.setQuantity(BigDecimal.valueOf(25));
+        materialRepository.save(originalMaterial);
+
+        mockMvc.perform(get("/api/requests/pending")
+                .header("Authorization", "Bearer " + ownerToken)
+                .header("If-None-Match", afterRename))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.isDuplicateFlagged == true)].duplicateDetails[0].originalQuantity",
+                        contains(25.0)));
+    }
+
+    private String pendingRequestsETag() throws Exception {
+        return mockMvc.perform(get("/api/requests/pending")
+                .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    private void createViaApi(int count) throws Exception {
+        mockMvc.perform(post("/api/requests")
+                .header("Authorization", "Bearer " + engineerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildRequests(count))))
+                .andExpect(status().isCreated());
+    }
+
+    private List<CreateRequestDTO> buildRequests(int count) {
+        List<CreateRequestDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            dtos.add(CreateRequestDTO.builder()
+                    .projectId(project.getId())
+                    .siteId(site.getId())
+                    .title("Request " + i)
+                    .plannedStartDate(LocalDateTime.now().plusDays(1))
+                    .plannedEndDate(LocalDateTime.now().plusDays(5))
+                    .items(List.of(CreateMaterialItemDTO.builder()
+                            .name("Material " + i)
+                            .quantity(BigDecimal.TEN)
+                            .measurementUnit("bag")
+                            .rateEstimate(BigDecimal.valueOf(1000))
+                            .rateEstimateType("ENGINEER_ESTIMATE")
+                            .resourceType("MATERIAL")
+                            .build()))
+                    .build());
+        }
+        return dtos;
+    }
+
+    private User saveUser(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("password"));
+        user.setName(role.name());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,182 @@
+package com.zilla.eproc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zilla.eproc.dto.CreateMaterialItemDTO;
+import com.zilla.eproc.dto.CreateRequestDTO;
+import com.zilla.eproc.model.*;
+import com.zilla.eproc.repository.*;
+import com.zilla.eproc.security.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Concurrent request intake on a small connection pool with virtual threads
+ * on. Every creation reserves a reference code block and the first ones
+ * create dashboard counters; if either took a second connection while the
+ * request holds one, the pool would run dry and requests fail after the
+ * connection timeout.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-concurrency;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=1000",
+        "spring.threads.virtual.enabled=true",
+        "eproc.reference-codes.block-size=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class WriteConcurrencyIntegrationTest {
+
+    private static final int CONCURRENT_REQUESTS = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private ProjectAssignmentRepository projectAssignmentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private DashboardCounterRepository dashboardCounterRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private String engineerToken;
+    private Project project;
+    private Site site;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        User owner = saveUser("owner@writes.test", Role.OWNER);
+        User engineer = saveUser("eng@writes.test", Role.ENGINEER);
+        engineerToken = jwtUtil.generateToken(engineer.getEmail(), Role.ENGINEER.name());
+
+        project = new Project();
+        project.setName("Write Concurrency Project");
+        project.setOwner(owner);
+        project.setStatus(ProjectStatus.ACTIVE);
+        project = projectRepository.save(project);
+
+        projectAssignmentRepository.save(ProjectAssignment.builder()
+                .project(project)
+                .user(engineer)
+                .role(ProjectRole.PROJECT_SITE_ENGINEER)
+                .startDate(LocalDate.now())
+                .isActive(true)
+                .build());
+
+        site = new Site();
+        site.setProject(project);
+        site.setName("Write Concurrency Site");
+        site.setLocation("Loc");
+        site.setIsActive(true);
+        site = siteRepository.save(site);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        requestRepository.deleteAll();
+        dashboardCounterRepository.deleteAll();
+        siteRepository.deleteAll();
+        projectAssignmentRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createRequests_concurrently_doNotExhaustConnectionPool() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                String body = objectMapper.writeValueAsString(List.of(buildRequest(i)));
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/requests")
+                            .header("Authorization", "Bearer " + engineerToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            for (Future<Integer> status : statuses) {
+                assertThat(status.get(60, TimeUnit.SECONDS)).isEqualTo(201);
+            }
+        }
+
+        assertThat(requestRepository.count()).isEqualTo(CONCURRENT_REQUESTS);
+        assertThat(requestRepository.findAll())
+                .extracting(Request::getBoqReferenceCode)
+                .doesNotHaveDuplicates();
+    }
+
+    private CreateRequestDTO buildRequest(int i) {
+        return CreateRequestDTO.builder()
+                .projectId(project.getId())
+                .siteId(site.getId())
+                .title("Concurrent request " + i)
+                .plannedStartDate(LocalDateTime.now().plusDays(1))
+                .plannedEndDate(LocalDateTime.now().plusDays(5))
+                .items(List.of(CreateMaterialItemDTO.builder()
+                        .name("Concurrent material " + i)
+                        .quantity(BigDecimal.TEN)
+                        .measurementUnit("bag")
+                        .rateEstimate(BigDecimal.valueOf(1000))
+                        .rateEstimateType("ENGINEER_ESTIMATE")
+                        .resourceType("MATERIAL")
+                        .build()))
+                .build();
+    }
+
+    private User saveUser(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("password"));
+        user.setName(role.name());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
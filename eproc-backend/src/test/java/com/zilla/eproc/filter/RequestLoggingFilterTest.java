@@ -0,0 +1,52 @@
+package com.zilla.eproc.filter;
+
+import com.zilla.eproc.metrics.SqlCountingInspector;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLoggingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestLoggingFilter filter = new RequestLoggingFilter(meterRegistry, 2);
+    private final SqlCountingInspector inspector = new SqlCountingInspector();
+
+    @Test
+    @DisplayName("Should record SQL statements per route template")
+    void shouldRecordStatementsPerRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/requests/42");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/requests/{id}");
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+            inspector.inspect("select 3");
+        });
+
+        DistributionSummary statements = meterRegistry.get("eproc.http.sql.statements")
+                .tag("uri", "/api/requests/{id}")
+                .tag("method", "GET")
+                .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not count statements outside a request")
+    void shouldNotCountOutsideRequest() throws Exception {
+        inspector.inspect("select 1");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/missing"), new MockHttpServletResponse(),
+                (req, res) -> {
+                });
+
+        assertThat(meterRegistry.get("eproc.http.sql.statements").tag("uri", "UNKNOWN").summary().totalAmount())
+                .isZero();
+    }
+}
@@ -0,0 +1,137 @@
+package com.zilla.eproc.security;
+
+import com.zilla.eproc.config.MetricsConfig;
+import com.zilla.eproc.model.Role;
+import com.zilla.eproc.model.User;
+import com.zilla.eproc.repository.CacheStampRepository;
+import com.zilla.eproc.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveUserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CacheStampRepository cacheStampRepository;
+
+    private ActiveUserCache activeUserCache;
+
+    @BeforeEach
+    void setUp() {
+        activeUserCache = new ActiveUserCache(userRepository, cacheStampRepository, 60_000, 100, 0);
+    }
+
+    @Test
+    @DisplayName("Should answer repeat lookups from the cache")
+    void shouldAnswerRepeatLookupsFromCache() {
+        when(userRepository.findByEmail("eng@test.com")).thenReturn(Optional.of(user("eng@test.com", true)));
+
+        JwtUserDetails first = activeUserCache.get("eng@test.com").orElseThrow();
+        JwtUserDetails second = activeUserCache.get("eng@test.com").orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.isEnabled()).isTrue();
+        assertThat(first.getRole()).isEqualTo(Role.ENGINEER);
+        assertThat(first.getUserId()).isEqualTo(1L);
+        verify(userRepository, times(1)).findByEmail("eng@test.com");
+        assertThat(activeUserCache.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Should reload a user after eviction")
+    void shouldReloadAfterEviction() {
+        when(userRepository.findByEmail("eng@test.com"))
+                .thenReturn(Optional.of(user("eng@test.com", true)))
+                .thenReturn(Optional.of(user("eng@test.com", false)));
+
+        assertThat(activeUserCache.get("eng@test.com").orElseThrow().isEnabled()).isTrue();
+        activeUserCache.evict("eng@test.com");
+
+        assertThat(activeUserCache.get("eng@test.com").orElseThrow().isEnabled()).isFalse();
+        verify(userRepository, times(2)).findByEmail("eng@test.com");
+    }
+
+    @Test
+    @DisplayName("Should drop cached users when another node bumps the stamp")
+    void shouldClearWhenStampMoves() {
+        when(cacheStampRepository.findVersionByName("users"))
+                .thenReturn(Optional.of(4L), Optional.of(4L), Optional.of(5L));
+        when(userRepository.findByEmail("eng@test.com"))
+                .thenReturn(Optional.of(user("eng@test.com", true)))
+                .thenReturn(Optional.of(user("eng@test.com", false)));
+
+        assertThat(activeUserCache.get("eng@test.com").orElseThrow().isEnabled()).isTrue();
+        assertThat(activeUserCache.get("eng@test.com").orElseThrow().isEnabled()).isTrue();
+        // Deactivated on another node
+        assertThat(activeUserCache.get("eng@test.com").orElseThrow().isEnabled()).isFalse();
+        verify(userRepository, times(2)).findByEmail("eng@test.com");
+    }
+
+    @Test
+    @DisplayName("Should not cache a user evicted while it was loading")
+    void shouldNotCacheWhatWasEvictedDuringLoad() {
+        when(userRepository.findByEmail("eng@test.com"))
+                .thenAnswer(invocation -> {
+                    // The deactivation commits after this read
+                    activeUserCache.evict("eng@test.com");
+                    return Optional.of(user("eng@test.com", true));
+                })
+                .thenReturn(Optional.of(user("eng@test.com", false)));
+
+        assertThat(activeUserCache.get("eng@test.com").orElseThrow().isEnabled()).isTrue();
+
+        assertThat(activeUserCache.get("eng@test.com").orElseThrow().isEnabled()).isFalse();
+        verify(cacheStampRepository).increment("users");
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown users")
+    void shouldNotCacheUnknownUsers() {
+        when(userRepository.findByEmail("ghost@test.com")).thenReturn(Optional.empty());
+
+        assertThat(activeUserCache.get("ghost@test.com")).isEmpty();
+        assertThat(activeUserCache.get("ghost@test.com")).isEmpty();
+
+        verify(userRepository, times(2)).findByEmail("ghost@test.com");
+    }
+
+    @Test
+    @DisplayName("Should publish hits, misses and size as meters")
+    void shouldPublishMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MetricsConfig().activeUserCacheMetrics(activeUserCache).bindTo(registry);
+        when(userRepository.findByEmail("eng@test.com")).thenReturn(Optional.of(user("eng@test.com", true)));
+
+        activeUserCache.get("eng@test.com");
+        activeUserCache.get("eng@test.com");
+        activeUserCache.get("eng@test.com");
+
+        assertThat(registry.get("eproc.auth.user.cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(2.0);
+        assertThat(registry.get("eproc.auth.user.cache.gets").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("eproc.auth.user.cache.size").gauge().value()).isEqualTo(1.0);
+    }
+
+    private User user(String email, boolean active) {
+        return User.builder()
+                .id(1L)
+                .email(email)
+                .name("Engineer")
+                .role(Role.ENGINEER)
+                .active(active)
+                .build();
+    }
+}
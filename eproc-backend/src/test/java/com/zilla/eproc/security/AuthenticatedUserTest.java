@@ -0,0 +1,66 @@
+package com.zilla.eproc.security;
+
+import com.zilla.eproc.model.Role;
+import com.zilla.eproc.model.User;
+import com.zilla.eproc.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticatedUserTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should resolve the caller from the request principal without a lookup")
+    void shouldResolveFromPrincipal() {
+        authenticate(7L, "eng@test.com");
+
+        AuthenticatedUser user = AuthenticatedUser.resolve("eng@test.com", userRepository).orElseThrow();
+
+        assertThat(user.getId()).isEqualTo(7L);
+        assertThat(user.getRole()).isEqualTo(Role.ENGINEER);
+        assertThat(user.isActive()).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should look up users other than the authenticated caller")
+    void shouldLookUpOtherUsers() {
+        authenticate(7L, "eng@test.com");
+        User other = User.builder().id(9L).email("other@test.com").role(Role.OWNER).build();
+        when(userRepository.findByEmail("other@test.com")).thenReturn(Optional.of(other));
+
+        AuthenticatedUser user = AuthenticatedUser.resolve("other@test.com", userRepository).orElseThrow();
+
+        assertThat(user.getId()).isEqualTo(9L);
+        assertThat(user.toEntity(userRepository)).isSameAs(other);
+        verify(userRepository, never()).getReferenceById(any());
+    }
+
+    private void authenticate(Long id, String email) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_ENGINEER"));
+        JwtUserDetails principal = new JwtUserDetails(id, email, Role.ENGINEER, true, authorities);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, authorities));
+    }
+}
@@ -1,5 +1,6 @@
 package com.zilla.eproc.security;
 
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -102,4 +103,48 @@ class JwtUtilTest {
         assertEquals(role, jwtUtil.getRoleFromToken(token));
         assertTrue(jwtUtil.validateToken(token));
     }
+
+    @Test
+    void parseVerifiedClaims_returnsClaims_forValidToken() {
+        String token = jwtUtil.generateToken("engineer@test.com", "ENGINEER");
+
+        Claims claims = jwtUtil.parseVerifiedClaims(token).orElseThrow();
+
+        assertEquals("engineer@test.com", claims.getSubject());
+        assertEquals("ENGINEER", claims.get("role", String.class));
+    }
+
+    @Test
+    void parseVerifiedClaims_returnsCachedClaims_forRepeatedToken() {
+        String token = jwtUtil.generateToken("engineer@test.com", "ENGINEER");
+
+        Claims first = jwtUtil.parseVerifiedClaims(token).orElseThrow();
+        Claims second = jwtUtil.parseVerifiedClaims(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void parseVerifiedClaims_returnsEmpty_forInvalidOrTamperedToken() {
+        String token = jwtUtil.generateToken("engineer@test.com", "ENGINEER");
+        jwtUtil.parseVerifiedClaims(token);
+
+        assertTrue(jwtUtil.parseVerifiedClaims(null).isEmpty());
+        assertTrue(jwtUtil.parseVerifiedClaims("invalid.token.here").isEmpty());
+        assertTrue(jwtUtil.parseVerifiedClaims(token + "x").isEmpty());
+    }
+
+    @Test
+    void parseVerifiedClaims_returnsEmpty_forExpiredToken() {
+        JwtUtil shortLivedJwtUtil = new JwtUtil(TEST_SECRET, 0);
+        String token = shortLivedJwtUtil.generateToken("test@example.com", "ENGINEER");
+
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        assertTrue(shortLivedJwtUtil.parseVerifiedClaims(token).isEmpty());
+    }
 }
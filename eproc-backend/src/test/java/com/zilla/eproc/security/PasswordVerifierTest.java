@@ -0,0 +1,81 @@
+package com.zilla.eproc.security;
+
+import com.zilla.eproc.model.User;
+import com.zilla.eproc.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordVerifierTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PasswordVerifier passwordVerifier;
+
+    @AfterEach
+    void tearDown() {
+        if (passwordVerifier != null) {
+            passwordVerifier.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should rehash a password stored under a weaker policy")
+    void shouldRehashOutdatedHash() {
+        PasswordEncoder encoder = encoder(5);
+        passwordVerifier = new PasswordVerifier(encoder, userRepository, transactionManager, 1, 10);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(passwordVerifier.verify(user(legacyHash), "secret").join()).isTrue();
+
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePasswordHash(eq(1L), eq(legacyHash), newHash.capture());
+        assertThat(newHash.getValue()).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret", newHash.getValue())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave current hashes and wrong passwords alone")
+    void shouldNotRehashCurrentHashOrWrongPassword() {
+        PasswordEncoder encoder = encoder(4);
+        passwordVerifier = new PasswordVerifier(encoder, userRepository, transactionManager, 1, 10);
+        String currentHash = encoder.encode("secret");
+
+        assertThat(passwordVerifier.verify(user(currentHash), "secret").join()).isTrue();
+        assertThat(passwordVerifier.verify(user(currentHash), "wrong").join()).isFalse();
+        assertThat(passwordVerifier.verify(user(new BCryptPasswordEncoder(4).encode("secret")), "wrong").join())
+                .isFalse();
+
+        verify(userRepository, never()).updatePasswordHash(any(), any(), any());
+    }
+
+    private PasswordEncoder encoder(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    private User user(String passwordHash) {
+        return User.builder().id(1L).email("eng@test.com").passwordHash(passwordHash).build();
+    }
+}
@@ -17,10 +17,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +32,9 @@ class DuplicateDetectionServiceTest {
     @Mock
     private RequestRepository requestRepository;
 
+    @Mock
+    private MaterialNameIndex materialNameIndex;
+
     @InjectMocks
     private DuplicateDetectionService duplicateDetectionService;
 
@@ -128,4 +134,81 @@ class DuplicateDetectionServiceTest {
         assertThat(warnings).hasSize(1);
         assertThat(warnings.get(0).getOverlappingMaterials()).contains("Cement");
     }
+
+    @Test
+    @DisplayName("Should match every request of a batch against one candidate query")
+    void shouldMatchBatchAgainstSingleCandidateQuery() {
+        // Arrange
+        Site site = new Site();
+        site.setId(siteId);
+        site.setName("Test Site");
+
+        Request existing = new Request();
+        existing.setId(102L);
+        existing.setSite(site);
+        existing.setStatus(RequestStatus.APPROVED);
+        existing.setPlannedStartDate(baseTime);
+        existing.setPlannedEndDate(baseTime.plusDays(5));
+
+        Material m = new Material();
+        m.setName("Cement");
+        existing.setMaterials(List.of(m));
+
+        when(requestRepository.findDuplicateCandidates(any(), any(), any(), any()))
+                .thenReturn(List.of(existing));
+
+        List<DuplicateDetectionService.DuplicateCheck> checks = List.of(
+                // Same site, same material, overlapping window -> duplicate
+                new DuplicateDetectionService.DuplicateCheck(siteId, List.of("CEMENT"),
+                        baseTime.plusDays(1), baseTime.plusDays(3)),
+                // Same site, different material -> no duplicate
+                new DuplicateDetectionService.DuplicateCheck(siteId, List.of("Steel"),
+                        baseTime.plusDays(1), baseTime.plusDays(3)),
+                // Same material, window after the existing request -> no duplicate
+                new DuplicateDetectionService.DuplicateCheck(siteId, List.of("Cement"),
+                        baseTime.plusDays(10), baseTime.plusDays(12)));
+
+        // Act
+        List<List<DuplicateWarningDTO>> results = duplicateDetectionService.findPotentialDuplicatesForBatch(checks);
+
+        // Assert
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0)).extracting(DuplicateWarningDTO::getRequestId).containsExactly(102L);
+        assertThat(results.get(1)).isEmpty();
+        assertThat(results.get(2)).isEmpty();
+        verify(requestRepository, times(1)).findDuplicateCandidates(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should match materials with similar names found in the site index")
+    void shouldMatchSimilarNamesFromIndex() {
+        // Arrange
+        Site site = new Site();
+        site.setId(siteId);
+        site.setName("Test Site");
+
+        Request existing = new Request();
+        existing.setId(103L);
+        existing.setSite(site);
+        existing.setStatus(RequestStatus.PENDING);
+        existing.setPlannedStartDate(baseTime);
+        existing.setPlannedEndDate(baseTime.plusDays(5));
+
+        Material m = new Material();
+        m.setName("Portland Cement 50kg");
+        existing.setMaterials(List.of(m));
+
+        when(materialNameIndex.findSimilar(siteId, "cement 50kg")).thenReturn(Set.of("portland cement 50kg"));
+        when(requestRepository.findOverlappingRequests(eq(siteId),
+                eq(List.of("cement 50kg", "portland cement 50kg")), any(), any()))
+                .thenReturn(List.of(existing));
+
+        // Act
+        List<DuplicateWarningDTO> warnings = duplicateDetectionService.findPotentialDuplicates(
+                siteId, List.of("cement (50 kg bags)"), baseTime, baseTime.plusDays(5));
+
+        // Assert
+        assertThat(warnings).hasSize(1);
+        assertThat(warnings.get(0).getOverlappingMaterials()).containsExactly("Portland Cement 50kg");
+    }
 }
@@ -0,0 +1,119 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.repository.MaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MaterialNameIndexTest {
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    private MaterialNameIndex materialNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        materialNameIndex = new MaterialNameIndex(materialRepository, new TrigramMaterialNameMatcher(), 0.5, 2000);
+    }
+
+    @Test
+    @DisplayName("Should find similar names at the same site only")
+    void shouldFindSimilarNamesPerSite() {
+        materialNameIndex.add(1L, "portland cement 50");
+        materialNameIndex.add(1L, "river sand");
+        materialNameIndex.add(2L, "cement 50");
+
+        assertThat(materialNameIndex.findSimilar(1L, "cement 50")).containsExactly("portland cement 50");
+        assertThat(materialNameIndex.findSimilar(1L, "steel bars y12")).isEmpty();
+        assertThat(materialNameIndex.findSimilar(3L, "cement 50")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should tolerate small spelling differences")
+    void shouldTolerateSpellingDifferences() {
+        materialNameIndex.add(1L, "aggregate 20");
+
+        assertThat(materialNameIndex.findSimilar(1L, "agregate 20")).containsExactly("aggregate 20");
+    }
+
+    @Test
+    @DisplayName("Should not match names that differ only in size")
+    void shouldNotMatchSizeVariants() {
+        materialNameIndex.add(1L, "steel 12");
+        materialNameIndex.add(1L, "cement 50");
+
+        assertThat(materialNameIndex.findSimilar(1L, "steel 16")).isEmpty();
+        assertThat(materialNameIndex.findSimilar(1L, "cement 25")).isEmpty();
+        assertThat(materialNameIndex.findSimilar(1L, "steel 12")).containsExactly("steel 12");
+    }
+
+    @Test
+    @DisplayName("Should not match names that differ only in grade")
+    void shouldNotMatchGradeVariants() {
+        materialNameIndex.add(1L, "steel bars y12");
+        materialNameIndex.add(1L, "ready mix concrete c25");
+
+        assertThat(materialNameIndex.findSimilar(1L, "steel bars y16")).isEmpty();
+        assertThat(materialNameIndex.findSimilar(1L, "ready mix concrete c30")).isEmpty();
+        assertThat(materialNameIndex.findSimilar(1L, "steel bar y12")).containsExactly("steel bars y12");
+    }
+
+    @Test
+    @DisplayName("Should still find names through rare terms when common terms are not walked")
+    void shouldFindNamesPastFrequentTerms() {
+        MaterialNameIndex capped = new MaterialNameIndex(materialRepository, new TrigramMaterialNameMatcher(), 0.5, 2);
+        capped.add(1L, "cement grey");
+        capped.add(1L, "cement white");
+        capped.add(1L, "cement blue");
+        capped.add(1L, "portland cement");
+
+        assertThat(capped.findSimilar(1L, "portland cement")).containsExactly("portland cement");
+        assertThat(capped.findSimilar(1L, "portlnd cement")).containsExactly("portland cement");
+        assertThat(capped.findSimilar(1L, "ordinary cement")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not discard a candidate that reaches the threshold exactly")
+    void shouldKeepCandidatesAtTheThreshold() {
+        MaterialNameMatcher matcher = new TokenMaterialNameMatcher();
+        // 2 of 4 distinct words shared: Jaccard 0.5
+        assertThat(matcher.minSharedTerms(3, 3, 0.5)).isEqualTo(2);
+        assertThat(matcher.similarity(matcher.terms("river sand fine"), matcher.terms("river sand coarse")))
+                .isEqualTo(0.5);
+
+        MaterialNameIndex index = new MaterialNameIndex(materialRepository, matcher, 0.5, 2000);
+        index.add(1L, "river sand coarse");
+        assertThat(index.findSimilar(1L, "river sand fine")).containsExactly("river sand coarse");
+    }
+
+    @Test
+    @DisplayName("Should replace the index contents on rebuild")
+    void shouldReplaceContentsOnRebuild() {
+        materialNameIndex.add(1L, "stale name");
+        MaterialRepository.SiteMaterialName row = new MaterialRepository.SiteMaterialName() {
+            public Long getSiteId() {
+                return 1L;
+            }
+
+            public String getNormalizedName() {
+                return "cement 50";
+            }
+        };
+        when(materialRepository.findOpenSiteMaterialNames()).thenReturn(List.of(row));
+
+        materialNameIndex.rebuild();
+
+        assertThat(materialNameIndex.findSimilar(1L, "stale name")).isEmpty();
+        assertThat(materialNameIndex.findSimilar(1L, "cement 50")).containsExactly("cement 50");
+    }
+}
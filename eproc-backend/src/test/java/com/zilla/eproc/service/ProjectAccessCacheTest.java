@@ -0,0 +1,114 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.model.ProjectRole;
+import com.zilla.eproc.repository.CacheStampRepository;
+import com.zilla.eproc.repository.ProjectAssignmentRepository;
+import com.zilla.eproc.repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectAccessCacheTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private ProjectAssignmentRepository projectAssignmentRepository;
+    @Mock
+    private CacheStampRepository cacheStampRepository;
+
+    private ProjectAccessCache projectAccessCache;
+
+    @BeforeEach
+    void setUp() {
+        projectAccessCache = new ProjectAccessCache(projectRepository, projectAssignmentRepository,
+                cacheStampRepository, 300_000, 100, 0);
+        when(projectRepository.findOwnershipById(10L)).thenReturn(Optional.of(ownership(10L, 1L)));
+    }
+
+    @Test
+    @DisplayName("Should answer repeat lookups from the cache")
+    void shouldAnswerRepeatLookupsFromCache() {
+        when(projectAssignmentRepository.findStandingByProjectIdAndUserId(10L, 2L))
+                .thenReturn(Optional.of(assignment(true)));
+
+        assertThat(projectAccessCache.get(2L, 10L).orElseThrow().assignmentActive()).isTrue();
+        assertThat(projectAccessCache.get(2L, 10L).orElseThrow().assignmentActive()).isTrue();
+
+        verify(projectAssignmentRepository, times(1)).findStandingByProjectIdAndUserId(10L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should drop cached memberships when another node bumps the stamp")
+    void shouldClearWhenStampMoves() {
+        when(cacheStampRepository.findVersionByName("project_access"))
+                .thenReturn(Optional.of(7L), Optional.of(7L), Optional.of(8L));
+        when(projectAssignmentRepository.findStandingByProjectIdAndUserId(10L, 2L))
+                .thenReturn(Optional.of(assignment(true)))
+                .thenReturn(Optional.of(assignment(false)));
+
+        assertThat(projectAccessCache.get(2L, 10L).orElseThrow().assignmentActive()).isTrue();
+        assertThat(projectAccessCache.get(2L, 10L).orElseThrow().assignmentActive()).isTrue();
+        // Revoked on another node
+        assertThat(projectAccessCache.get(2L, 10L).orElseThrow().assignmentActive()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not cache a membership evicted while it was loading")
+    void shouldNotCacheWhatWasEvictedDuringLoad() {
+        when(projectAssignmentRepository.findStandingByProjectIdAndUserId(10L, 2L))
+                .thenAnswer(invocation -> {
+                    // The revocation commits after this read
+                    projectAccessCache.evict(2L, 10L);
+                    return Optional.of(assignment(true));
+                })
+                .thenReturn(Optional.of(assignment(false)));
+
+        assertThat(projectAccessCache.get(2L, 10L).orElseThrow().assignmentActive()).isTrue();
+
+        assertThat(projectAccessCache.get(2L, 10L).orElseThrow().assignmentActive()).isFalse();
+        verify(cacheStampRepository).increment("project_access");
+    }
+
+    private ProjectAssignmentRepository.AssignmentStanding assignment(boolean active) {
+        return new ProjectAssignmentRepository.AssignmentStanding() {
+            public ProjectRole getRole() {
+                return ProjectRole.PROJECT_SITE_ENGINEER;
+            }
+
+            public Boolean getIsActive() {
+                return active;
+            }
+
+            public LocalDate getStartDate() {
+                return null;
+            }
+
+            public LocalDate getEndDate() {
+                return null;
+            }
+        };
+    }
+
+    private ProjectRepository.ProjectOwnership ownership(Long projectId, Long ownerId) {
+        return new ProjectRepository.ProjectOwnership() {
+            public Long getProjectId() {
+                return projectId;
+            }
+
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+}
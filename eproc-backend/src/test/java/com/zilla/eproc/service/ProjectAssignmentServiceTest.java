@@ -32,6 +32,8 @@ class ProjectAssignmentServiceTest {
         private ProjectRepository projectRepository;
         @Mock
         private UserRepository userRepository;
+        @Mock
+        private ProjectAccessCache projectAccessCache;
 
         @InjectMocks
         private ProjectAssignmentService service;
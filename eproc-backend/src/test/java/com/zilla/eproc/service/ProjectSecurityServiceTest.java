@@ -0,0 +1,96 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.model.ProjectRole;
+import com.zilla.eproc.model.Role;
+import com.zilla.eproc.model.User;
+import com.zilla.eproc.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectSecurityServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProjectAccessCache projectAccessCache;
+
+    @InjectMocks
+    private ProjectSecurityService projectSecurityService;
+
+    @BeforeEach
+    void setUp() {
+        User engineer = User.builder().id(2L).email("eng@test.com").role(Role.ENGINEER).active(true).build();
+        when(userRepository.findByEmail("eng@test.com")).thenReturn(Optional.of(engineer));
+    }
+
+    @Test
+    @DisplayName("Should grant access to an active assignment with a matching role")
+    void shouldGrantMatchingAssignment() {
+        when(projectAccessCache.get(2L, 10L)).thenReturn(Optional.of(assignment(ProjectRole.PROJECT_SITE_ENGINEER,
+                true, LocalDate.now().minusDays(1), null)));
+
+        assertThat(projectSecurityService.decideProjectAccess("eng@test.com", 10L,
+                ProjectRole.PROJECT_SITE_ENGINEER)).isEqualTo(ProjectSecurityService.Decision.GRANTED);
+        assertThat(projectSecurityService.hasProjectAccess("eng@test.com", 10L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should deny expired assignments and wrong roles without throwing")
+    void shouldDenyExpiredAndWrongRole() {
+        when(projectAccessCache.get(2L, 10L)).thenReturn(Optional.of(assignment(ProjectRole.PROJECT_SITE_ENGINEER,
+                true, LocalDate.now().minusDays(30), LocalDate.now().minusDays(1))));
+        when(projectAccessCache.get(2L, 11L)).thenReturn(Optional.of(assignment(ProjectRole.PROJECT_ACCOUNTANT,
+                true, null, null)));
+
+        assertThat(projectSecurityService.decideProjectAccess("eng@test.com", 10L))
+                .isEqualTo(ProjectSecurityService.Decision.ASSIGNMENT_EXPIRED);
+        assertThat(projectSecurityService.decideProjectAccess("eng@test.com", 11L,
+                ProjectRole.PROJECT_SITE_ENGINEER)).isEqualTo(ProjectSecurityService.Decision.ROLE_MISMATCH);
+        assertThat(projectSecurityService.hasProjectAccess("eng@test.com", 10L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should agree with decideProjectAccess on membership date windows")
+    void shouldApplyDateWindowToActiveMember() {
+        when(projectAccessCache.get(2L, 10L)).thenReturn(Optional.of(assignment(ProjectRole.PROJECT_SITE_ENGINEER,
+                true, LocalDate.now().minusDays(30), LocalDate.now().minusDays(1))));
+        when(projectAccessCache.get(2L, 11L)).thenReturn(Optional.of(assignment(ProjectRole.PROJECT_SITE_ENGINEER,
+                true, LocalDate.now().plusDays(1), null)));
+        when(projectAccessCache.get(2L, 12L)).thenReturn(Optional.of(assignment(ProjectRole.PROJECT_SITE_ENGINEER,
+                true, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1))));
+
+        assertThat(projectSecurityService.isActiveMember(2L, 10L)).isFalse();
+        assertThat(projectSecurityService.hasProjectAccess("eng@test.com", 10L)).isFalse();
+        assertThat(projectSecurityService.isActiveMember(2L, 11L)).isFalse();
+        assertThat(projectSecurityService.isActiveMember(2L, 12L)).isTrue();
+        assertThat(projectSecurityService.isActiveMember(2L, 12L, ProjectRole.PROJECT_ACCOUNTANT)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the exception messages of validateProjectAccess")
+    void shouldThrowWithReason() {
+        when(projectAccessCache.get(2L, 12L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> projectSecurityService.validateProjectAccess("eng@test.com", 12L))
+                .hasMessage("Project not found");
+    }
+
+    private ProjectAccessCache.Membership assignment(ProjectRole role, boolean active, LocalDate start,
+            LocalDate end) {
+        return new ProjectAccessCache.Membership(false, true, role, active, start, end);
+    }
+}
@@ -0,0 +1,116 @@
+package com.zilla.eproc.service;
+
+import com.zilla.eproc.repository.DocumentSequenceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Year;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceCodeServiceTest {
+
+    @Mock
+    private DocumentSequenceRepository documentSequenceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReferenceCodeService referenceCodeService;
+
+    private final int year = Year.now().getValue();
+
+    @BeforeEach
+    void setUp() {
+        referenceCodeService = new ReferenceCodeService(documentSequenceRepository, transactionManager, 3);
+        TransactionSynchronizationManager.initSynchronization();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should start a new series at 1 and serve the block from memory after commit")
+    void shouldStartNewSeriesAndServeBlockFromMemory() {
+        when(documentSequenceRepository.advance("BOQ-" + year, 3)).thenReturn(0, 1);
+        when(documentSequenceRepository.createIfAbsent("BOQ-" + year)).thenReturn(1);
+        when(documentSequenceRepository.findNextValueByName("BOQ-" + year)).thenReturn(Optional.of(4L));
+
+        assertThat(referenceCodeService.nextBoqReferenceCode()).isEqualTo("BOQ-" + year + "-001");
+        commit();
+        assertThat(referenceCodeService.nextBoqReferenceCode()).isEqualTo("BOQ-" + year + "-002");
+        assertThat(referenceCodeService.nextBoqReferenceCode()).isEqualTo("BOQ-" + year + "-003");
+
+        verify(documentSequenceRepository, times(1)).createIfAbsent(anyString());
+        verify(documentSequenceRepository, times(2)).advance(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reserve the next block from the counter row when exhausted")
+    void shouldReserveNextBlockWhenExhausted() {
+        when(documentSequenceRepository.advance("PO-" + year, 3)).thenReturn(1);
+        when(documentSequenceRepository.findNextValueByName("PO-" + year)).thenReturn(Optional.of(44L), Optional.of(47L));
+
+        for (int i = 0; i < 3; i++) {
+            referenceCodeService.nextPoNumber();
+        }
+        String fourth = referenceCodeService.nextPoNumber();
+
+        assertThat(fourth).isEqualTo("PO-" + year + "-0044");
+        verify(documentSequenceRepository, times(2)).advance("PO-" + year, 3);
+        verify(documentSequenceRepository, never()).createIfAbsent(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not hand out the rest of a block whose reservation rolled back")
+    void shouldDropBlockOfRolledBackReservation() {
+        when(documentSequenceRepository.advance("BOQ-" + year, 3)).thenReturn(1);
+        when(documentSequenceRepository.findNextValueByName("BOQ-" + year)).thenReturn(Optional.of(4L), Optional.of(7L));
+
+        assertThat(referenceCodeService.nextBoqReferenceCode()).isEqualTo("BOQ-" + year + "-001");
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Another node may be handed 2 and 3 now; this one reserves again
+        assertThat(referenceCodeService.nextBoqReferenceCode()).isEqualTo("BOQ-" + year + "-004");
+        verify(documentSequenceRepository, times(2)).advance("BOQ-" + year, 3);
+    }
+
+    @Test
+    @DisplayName("Should keep BOQ and PO series independent")
+    void shouldKeepSeriesIndependent() {
+        when(documentSequenceRepository.advance(anyString(), anyLong())).thenReturn(0, 1);
+        when(documentSequenceRepository.findNextValueByName(anyString())).thenReturn(Optional.of(4L));
+
+        assertThat(referenceCodeService.nextBoqReferenceCode()).isEqualTo("BOQ-" + year + "-001");
+        assertThat(referenceCodeService.nextPoNumber()).isEqualTo("PO-" + year + "-0001");
+    }
+
+    private void commit() {
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
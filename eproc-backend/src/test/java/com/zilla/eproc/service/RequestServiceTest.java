@@ -46,6 +46,21 @@ class RequestServiceTest {
         @Mock
         private DuplicateDetectionService duplicateDetectionService;
 
+        @Mock
+        private ReferenceCodeService referenceCodeService;
+
+        @Mock
+        private DashboardCounterService dashboardCounterService;
+
+        @Mock
+        private MaterialNameIndex materialNameIndex;
+
+        @Mock
+        private ProjectAssignmentRepository projectAssignmentRepository;
+
+        @Mock
+        private ProjectSecurityService projectSecurityService;
+
         @InjectMocks
         private RequestService requestService;
 
@@ -108,12 +123,17 @@ class RequestServiceTest {
                 // Arrange
                 when(userRepository.findByEmail(testEngineer.getEmail()))
                                 .thenReturn(Optional.of(testEngineer));
-                when(projectRepository.findById(1L))
-                                .thenReturn(Optional.of(testProject));
-                when(siteRepository.findById(1L))
-                                .thenReturn(Optional.of(testSite));
-                when(requestRepository.existsByBoqReferenceCode(anyString()))
-                                .thenReturn(false);
+                when(projectRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testProject));
+                when(siteRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testSite));
+                when(projectAssignmentRepository.findActiveProjectIdsByUserIdAndRoles(eq(1L), anyCollection(),
+                                anyCollection()))
+                                .thenReturn(List.of(1L));
+                when(duplicateDetectionService.findPotentialDuplicatesForBatch(anyList()))
+                                .thenReturn(List.of(List.of()));
+                when(referenceCodeService.nextBoqReferenceCode())
+                                .thenReturn("BOQ-2026-001", "BOQ-2026-002");
                 when(requestRepository.saveAll(anyList()))
                                 .thenAnswer(invocation -> {
                                         List<Request> requests = invocation.getArgument(0);
@@ -141,11 +161,16 @@ class RequestServiceTest {
         @DisplayName("Should throw ForbiddenException when assignment is inactive")
         void shouldThrowExceptionWhenAssignmentIsInactive() {
                 // Arrange
+                // Inactive assignments are filtered out by the assignment query
                 testProject.getTeamAssignments().get(0).setIsActive(false);
 
                 when(userRepository.findByEmail(testEngineer.getEmail()))
                                 .thenReturn(Optional.of(testEngineer));
-                when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
+                when(projectRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testProject));
+                when(projectAssignmentRepository.findActiveProjectIdsByUserIdAndRoles(eq(1L), anyCollection(),
+                                anyCollection()))
+                                .thenReturn(List.of());
 
                 // Act & Assert
                 assertThatThrownBy(() -> requestService.createRequests(
@@ -161,16 +186,21 @@ class RequestServiceTest {
                 // Arrange
                 when(userRepository.findByEmail(testEngineer.getEmail()))
                                 .thenReturn(Optional.of(testEngineer));
-                when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
-                when(siteRepository.findById(1L)).thenReturn(Optional.of(testSite));
+                when(projectRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testProject));
+                when(siteRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testSite));
+                when(projectAssignmentRepository.findActiveProjectIdsByUserIdAndRoles(eq(1L), anyCollection(),
+                                anyCollection()))
+                                .thenReturn(List.of(1L));
 
                 com.zilla.eproc.dto.DuplicateWarningDTO warning = com.zilla.eproc.dto.DuplicateWarningDTO.builder()
                                 .requestId(99L)
                                 .requestTitle("Old Req")
                                 .build();
 
-                when(duplicateDetectionService.findPotentialDuplicates(any(), any(), any(), any()))
-                                .thenReturn(List.of(warning));
+                when(duplicateDetectionService.findPotentialDuplicatesForBatch(anyList()))
+                                .thenReturn(List.of(List.of(warning)));
 
                 // Act & Assert
                 assertThatThrownBy(() -> requestService.createRequests(
@@ -187,16 +217,21 @@ class RequestServiceTest {
 
                 when(userRepository.findByEmail(testEngineer.getEmail()))
                                 .thenReturn(Optional.of(testEngineer));
-                when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
-                when(siteRepository.findById(1L)).thenReturn(Optional.of(testSite));
-                when(requestRepository.existsByBoqReferenceCode(anyString())).thenReturn(false);
+                when(projectRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testProject));
+                when(siteRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testSite));
+                when(projectAssignmentRepository.findActiveProjectIdsByUserIdAndRoles(eq(1L), anyCollection(),
+                                anyCollection()))
+                                .thenReturn(List.of(1L));
+                when(referenceCodeService.nextBoqReferenceCode()).thenReturn("BOQ-2026-001");
 
                 com.zilla.eproc.dto.DuplicateWarningDTO warning = com.zilla.eproc.dto.DuplicateWarningDTO.builder()
                                 .requestId(99L)
                                 .build();
 
-                when(duplicateDetectionService.findPotentialDuplicates(any(), any(), any(), any()))
-                                .thenReturn(List.of(warning));
+                when(duplicateDetectionService.findPotentialDuplicatesForBatch(anyList()))
+                                .thenReturn(List.of(List.of(warning)));
 
                 when(requestRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
@@ -220,12 +255,17 @@ class RequestServiceTest {
 
                 when(userRepository.findByEmail(testEngineer.getEmail()))
                                 .thenReturn(Optional.of(testEngineer));
-                when(projectRepository.findById(1L))
-                                .thenReturn(Optional.of(testProject));
-                when(siteRepository.findById(1L))
-                                .thenReturn(Optional.of(testSite));
-                when(requestRepository.existsByBoqReferenceCode(anyString()))
-                                .thenReturn(false);
+                when(projectRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testProject));
+                when(siteRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testSite));
+                when(projectAssignmentRepository.findActiveProjectIdsByUserIdAndRoles(eq(1L), anyCollection(),
+                                anyCollection()))
+                                .thenReturn(List.of(1L));
+                when(duplicateDetectionService.findPotentialDuplicatesForBatch(anyList()))
+                                .thenReturn(List.of(List.of()));
+                when(referenceCodeService.nextBoqReferenceCode())
+                                .thenReturn("BOQ-2026-001", "BOQ-2026-002");
                 when(requestRepository.saveAll(anyList()))
                                 .thenAnswer(invocation -> {
                                         List<Request> requests = invocation.getArgument(0);
@@ -250,8 +290,11 @@ class RequestServiceTest {
 
                 when(userRepository.findByEmail(testEngineer.getEmail()))
                                 .thenReturn(Optional.of(testEngineer));
-                when(projectRepository.findById(1L))
-                                .thenReturn(Optional.of(testProject));
+                when(projectRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testProject));
+                when(projectAssignmentRepository.findActiveProjectIdsByUserIdAndRoles(eq(1L), anyCollection(),
+                                anyCollection()))
+                                .thenReturn(List.of());
 
                 // Act & Assert
                 assertThatThrownBy(() -> requestService.createRequests(
@@ -276,12 +319,17 @@ class RequestServiceTest {
 
                 when(userRepository.findByEmail(testEngineer.getEmail()))
                                 .thenReturn(Optional.of(testEngineer));
-                when(projectRepository.findById(1L))
-                                .thenReturn(Optional.of(testProject));
-                when(siteRepository.findById(1L))
-                                .thenReturn(Optional.of(testSite));
-                when(requestRepository.existsByBoqReferenceCode(anyString()))
-                                .thenReturn(false);
+                when(projectRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testProject));
+                when(siteRepository.findAllById(anyCollection()))
+                                .thenReturn(List.of(testSite));
+                when(projectAssignmentRepository.findActiveProjectIdsByUserIdAndRoles(eq(1L), anyCollection(),
+                                anyCollection()))
+                                .thenReturn(List.of(1L));
+                when(duplicateDetectionService.findPotentialDuplicatesForBatch(anyList()))
+                                .thenReturn(List.of(List.of(), List.of()));
+                when(referenceCodeService.nextBoqReferenceCode())
+                                .thenReturn("BOQ-2026-001", "BOQ-2026-002");
                 when(requestRepository.saveAll(anyList()))
                                 .thenAnswer(invocation -> {
                                         List<Request> requests = invocation.getArgument(0);
@@ -326,6 +374,8 @@ class RequestServiceTest {
                                 .thenReturn(Optional.of(request));
                 when(userRepository.findByEmail(testEngineer.getEmail()))
                                 .thenReturn(Optional.of(testEngineer));
+                when(projectSecurityService.isActiveMember(testEngineer.getId(), testProject.getId()))
+                                .thenReturn(true);
 
                 // Act
                 RequestResponseDTO result = requestService.getRequestById(1L, testEngineer.getEmail());
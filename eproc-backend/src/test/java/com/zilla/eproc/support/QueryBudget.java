@@ -0,0 +1,74 @@
+package com.zilla.eproc.support;
+
+import com.zilla.eproc.metrics.QueryCounter;
+
+import java.util.stream.Collectors;
+
+/**
+ * Asserts how many SQL statements a piece of work issues, so N+1 query
+ * regressions fail the build.
+ *
+ * Counts what Hibernate prepares on the calling thread, including work done
+ * by MockMvc requests and their filters:
+ *
+ * <pre>
+ * QueryBudget.assertSelectsAtMost(5, () -&gt; mockMvc.perform(get("/api/requests/pending")));
+ * </pre>
+ *
+ * Reads are what N+1 problems multiply; writes legitimately scale with the
+ * payload, so budgets are usually expressed in selects.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    /**
+     * Work that may throw, e.g. a MockMvc call.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Run the work and fail if it issued more than {@code maxSelects} SELECT
+     * statements. Returns the work's result.
+     */
+    public static <T> T assertSelectsAtMost(int maxSelects, Work<T> work) throws Exception {
+        QueryCounter.Counts counts = QueryCounter.start(true);
+        T result;
+        try {
+            result = work.run();
+        } finally {
+            QueryCounter.stop(counts);
+        }
+        if (counts.getSelects() > maxSelects) {
+            throw new AssertionError(failure("selects", maxSelects, counts));
+        }
+        return result;
+    }
+
+    /**
+     * Run the work and fail if it issued more than {@code maxStatements}
+     * statements of any kind. Returns the work's result.
+     */
+    public static <T> T assertStatementsAtMost(int maxStatements, Work<T> work) throws Exception {
+        QueryCounter.Counts counts = QueryCounter.start(true);
+        T result;
+        try {
+            result = work.run();
+        } finally {
+            QueryCounter.stop(counts);
+        }
+        if (counts.getStatements() > maxStatements) {
+            throw new AssertionError(failure("statements", maxStatements, counts));
+        }
+        return result;
+    }
+
+    private static String failure(String what, int max, QueryCounter.Counts counts) {
+        return "Expected at most " + max + " " + what + " but got " + counts + ":\n"
+                + counts.getSql().stream().map(sql -> "  " + sql).collect(Collectors.joining("\n"));
+    }
+}
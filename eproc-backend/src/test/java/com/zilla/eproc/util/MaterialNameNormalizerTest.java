@@ -0,0 +1,49 @@
+package com.zilla.eproc.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MaterialNameNormalizerTest {
+
+    @Test
+    @DisplayName("Should lowercase, trim and collapse punctuation")
+    void shouldLowercaseAndCollapsePunctuation() {
+        assertThat(MaterialNameNormalizer.normalize("  Steel-Bars, Y12 ")).isEqualTo("steel bars y12");
+    }
+
+    @Test
+    @DisplayName("Should join a number and its unit into one token")
+    void shouldJoinQuantityAndUnit() {
+        assertThat(MaterialNameNormalizer.normalize("Cement 50kg")).isEqualTo("cement 50kg");
+        assertThat(MaterialNameNormalizer.normalize("cement (50 kg bags)")).isEqualTo("cement 50kg");
+        assertThat(MaterialNameNormalizer.normalize("Cement 50 Kgs")).isEqualTo("cement 50kg");
+        assertThat(MaterialNameNormalizer.normalize("Ready mix 20 cbm")).isEqualTo("ready mix 20m3");
+    }
+
+    @Test
+    @DisplayName("Should keep millimetres and metres apart")
+    void shouldKeepDistinctUnitsApart() {
+        assertThat(MaterialNameNormalizer.normalize("Steel bar 12mm")).isEqualTo("steel bar 12mm");
+        assertThat(MaterialNameNormalizer.normalize("Steel bar 12m")).isEqualTo("steel bar 12m");
+        assertThat(MaterialNameNormalizer.normalize("Pipe 20mm"))
+                .isNotEqualTo(MaterialNameNormalizer.normalize("Pipe 20 m"));
+    }
+
+    @Test
+    @DisplayName("Should keep unit and packaging words that are not next to a quantity")
+    void shouldKeepWordsWithoutQuantity() {
+        assertThat(MaterialNameNormalizer.normalize("T bar")).isEqualTo("t bar");
+        assertThat(MaterialNameNormalizer.normalize("Roofing sheets")).isEqualTo("roofing sheets");
+        assertThat(MaterialNameNormalizer.normalize("Bags")).isEqualTo("bags");
+        assertThat(MaterialNameNormalizer.normalize("Roofing sheets 30 sheets")).isEqualTo("roofing sheets 30");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the lowercased name when nothing alphanumeric remains")
+    void shouldFallBackWhenNothingRemains() {
+        assertThat(MaterialNameNormalizer.normalize(" -- ")).isEqualTo("--");
+        assertThat(MaterialNameNormalizer.normalize(null)).isNull();
+    }
+}